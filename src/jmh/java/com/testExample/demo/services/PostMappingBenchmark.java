@@ -0,0 +1,62 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.MediaDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.entities.Media;
+import com.testExample.demo.entities.Post;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity <-> DTO mapping cost per post, without Spring or the database.
+// Run with: mvn -Pjmh verify -Djmh.args="PostMappingBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostMappingBenchmark {
+
+    @Param({"0", "4"})
+    public int mediaPerPost;
+
+    private final PostService postService = new PostService();
+    private PostRequestDTO request;
+    private Post post;
+
+    @Setup
+    public void setUp() {
+        List<MediaDTO> media = new ArrayList<>();
+        for (int i = 0; i < mediaPerPost; i++) {
+            media.add(new MediaDTO(null, "https://example.com/media/" + i + ".jpg", "image"));
+        }
+        request = new PostRequestDTO(1L, new ContentDTO(null, "Benchmark post title",
+                "A description of typical length for a post in the timeline, long enough to be realistic.", media));
+
+        // A persisted-looking post: the entity graph convertToDTO sees after a fetch-plan query
+        post = postService.convertToEntity(request);
+        post.setPostId(42L);
+        post.setCreatedAtTimestamp(LocalDateTime.of(2025, 1, 1, 12, 0));
+        post.getContent().setContentId(42L);
+        long mediaId = 100;
+        for (Media m : post.getContent().getMediaFiles()) {
+            m.setMediaId(mediaId++);
+        }
+    }
+
+    @Benchmark
+    public PostResponseDTO convertToDTO() {
+        return postService.convertToDTO(post);
+    }
+
+    @Benchmark
+    public Post convertToEntity() {
+        return postService.convertToEntity(request);
+    }
+}
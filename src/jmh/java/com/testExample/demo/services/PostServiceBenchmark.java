@@ -0,0 +1,113 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.DemoApplication;
+import com.testExample.demo.dto.BatchPostResultDTO;
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.MediaDTO;
+import com.testExample.demo.dto.PaginatedPostResponseDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// PostService read and write paths against a seeded in-memory H2 (no HTTP, no response cache).
+// Run with: mvn -Pjmh verify -Djmh.args="PostServiceBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PostServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000"})
+    public int seededPosts;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private Long userId;
+    private long[] postIds;
+    private PostRequestDTO newPost;
+    private String secondPageCursor;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        postService = context.getBean(PostService.class);
+
+        User user = new User();
+        user.setUsername("jmh");
+        user.setEmail("jmh@example.com");
+        userId = context.getBean(UserRepository.class).save(user).getUserId();
+
+        postIds = new long[seededPosts];
+        for (int seeded = 0; seeded < seededPosts; seeded += PostService.MAX_BATCH_POSTS) {
+            List<PostRequestDTO> batch = new ArrayList<>();
+            for (int i = 0; i < Math.min(PostService.MAX_BATCH_POSTS, seededPosts - seeded); i++) {
+                batch.add(request(seeded + i));
+            }
+            List<BatchPostResultDTO> results = postService.createPostsBatch(batch).getResults();
+            for (BatchPostResultDTO result : results) {
+                postIds[seeded + result.getIndex()] = result.getPost().getPostId();
+            }
+        }
+        secondPageCursor = postService.getAllPostsByCursor(null, PAGE_SIZE).getNextCursor();
+        newPost = request(-1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public PostResponseDTO getPostById() {
+        return postService.getPostById(postIds[ThreadLocalRandom.current().nextInt(postIds.length)]);
+    }
+
+    // Offset page in the middle of the timeline: id page + one fetch-plan query
+    @Benchmark
+    public PaginatedPostResponseDTO timelinePageByOffset() {
+        return postService.getAllPosts(seededPosts / PAGE_SIZE / 2, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PaginatedPostResponseDTO timelinePageByCursor() {
+        return postService.getAllPostsByCursor(secondPageCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PaginatedPostResponseDTO userTimelinePage() {
+        return postService.getPostsByUserId(userId, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PostResponseDTO createPost() {
+        return postService.createPost(newPost);
+    }
+
+    private PostRequestDTO request(int i) {
+        List<MediaDTO> media = new ArrayList<>();
+        media.add(new MediaDTO(null, "https://example.com/media/" + i + ".jpg", "image"));
+        return new PostRequestDTO(userId, new ContentDTO(null, "Post " + i,
+                "Seeded description for post " + i + " with enough text to resemble a real one.", media));
+    }
+}
@@ -0,0 +1,115 @@
+package com.testExample.demo.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-operation latency histograms (microseconds) and error counts.
+final class LatencyReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, boolean success) {
+        recorders.get(operation).recordValue(Math.max(latencyNanos / 1000, 1));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    // Print the table and write report.json plus one .hgrm percentile distribution per operation
+    void finish(LoadOptions options, double elapsedSeconds, PrintStream out) throws IOException {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Histogram all = new Histogram(3);
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            if (histogram.getTotalCount() > 0) {
+                histograms.put(operation, histogram);
+                all.add(histogram);
+            }
+        }
+
+        Files.createDirectories(options.reportDir);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long totalErrors = 0;
+        out.printf("%n%-16s %-26s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "endpoint", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "p99.99 ms", "max ms");
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Operation operation = entry.getKey();
+            Histogram histogram = entry.getValue();
+            long errorCount = errors.get(operation).sum();
+            totalErrors += errorCount;
+            endpoints.put(operation.key, summary(operation.endpoint, histogram, errorCount, elapsedSeconds));
+            printRow(out, operation.key, operation.endpoint, histogram, errorCount);
+            try (PrintStream hgrm = new PrintStream(options.reportDir.resolve(operation.key + ".hgrm").toFile())) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        printRow(out, "all", "", all, totalErrors);
+        double achievedRate = all.getTotalCount() / elapsedSeconds;
+        out.printf("%nAchieved %.1f requests/s over %.1f s (%s loop%s)%n", achievedRate, elapsedSeconds,
+                options.mode.name().toLowerCase(), options.rate > 0 ? ", target " + options.rate + "/s" : "");
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", options.baseUrl);
+        report.put("mode", options.mode.name().toLowerCase());
+        report.put("targetRate", options.rate);
+        report.put("concurrency", options.concurrency);
+        report.put("warmupSeconds", options.warmupSeconds);
+        report.put("durationSeconds", elapsedSeconds);
+        report.put("mix", options.mix.entrySet().stream()
+                .collect(LinkedHashMap::new, (map, e) -> map.put(e.getKey().key, e.getValue()), Map::putAll));
+        report.put("achievedRate", achievedRate);
+        report.put("all", summary("", all, totalErrors, elapsedSeconds));
+        report.put("operations", endpoints);
+        Path reportFile = options.reportDir.resolve("report.json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+        out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    private static Map<String, Object> summary(String endpoint, Histogram histogram, long errorCount, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (!endpoint.isEmpty()) {
+            summary.put("endpoint", endpoint);
+        }
+        summary.put("count", histogram.getTotalCount());
+        summary.put("errors", errorCount);
+        summary.put("rate", histogram.getTotalCount() / seconds);
+        summary.put("meanMs", histogram.getMean() / 1000.0);
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        summary.put("percentilesMs", percentiles);
+        summary.put("maxMs", histogram.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    private static void printRow(PrintStream out, String name, String endpoint, Histogram histogram, long errorCount) {
+        out.printf("%-16s %-26s %9d %7d", name, endpoint, histogram.getTotalCount(), errorCount);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %9.2f%n", histogram.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,167 @@
+package com.testExample.demo.loadgen;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Load generator for the posts API, run against an already started application:
+//   mvn -Ploadgen verify -Dloadgen.args="--mode open --rate 500 --duration 60"
+//
+// Latency is always measured from the moment a request was *scheduled* to start, not from when it was
+// actually sent. In open-loop mode requests are scheduled at a constant rate regardless of how fast the
+// server answers; in closed-loop mode with --rate every worker follows its own fixed schedule. Either way
+// a stalled server shows up as the full waiting time of every request queued behind the stall
+// (no coordinated omission). Closed-loop mode without --rate measures plain service time at saturation.
+public final class LoadGenerator {
+
+    private final LoadOptions options;
+    private final PostsApiClient client;
+    private final LatencyReport report = new LatencyReport();
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private long measureStart;
+
+    private LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.client = new PostsApiClient(options.baseUrl, options.pageSize);
+        this.operations = options.mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        new LoadGenerator(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Seeding %d posts at %s%n", options.seedPosts, options.baseUrl);
+        client.setUp(options.seedPosts);
+
+        long warmupNanos = TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long measureNanos = TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        long start = System.nanoTime();
+        measureStart = start + warmupNanos;
+        long end = measureStart + measureNanos;
+        System.out.printf("%s loop, mix %s: %d s warmup, %d s measured%n",
+                options.mode.name().toLowerCase(), mixDescription(), options.warmupSeconds, options.durationSeconds);
+
+        if (options.mode == LoadOptions.Mode.OPEN) {
+            runOpenLoop(start, end);
+        } else {
+            runClosedLoop(start, end);
+        }
+        report.finish(options, measureNanos / 1e9, System.out);
+        System.out.printf("%d posts left from this run%n", client.livePosts());
+    }
+
+    // One request every 1/rate seconds, each on its own virtual thread; the schedule never waits for responses
+    private void runOpenLoop(long start, long end) throws InterruptedException {
+        double intervalNanos = 1e9 / options.rate;
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        Random random = new Random(options.randomSeed);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + (long) (i * intervalNanos);
+                if (intendedStart >= end) {
+                    break;
+                }
+                sleepUntil(intendedStart);
+                // If the cap is hit, later requests start late, and their latency still counts from the schedule
+                inFlight.acquire();
+                Operation operation = nextOperation(random);
+                executor.execute(() -> {
+                    try {
+                        execute(operation, intendedStart, ThreadLocalRandom.current());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    // A fixed number of workers, each sending its next request when the previous one completed
+    // (or at its next scheduled slot when --rate is set)
+    private void runClosedLoop(long start, long end) throws InterruptedException {
+        double intervalNanos = options.rate > 0 ? 1e9 / options.rate : 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < options.concurrency; worker++) {
+                Random random = new Random(options.randomSeed + worker);
+                // Spread the workers' schedules over one interval
+                long offset = (long) (intervalNanos * worker / options.concurrency);
+                executor.execute(() -> {
+                    long now = System.nanoTime();
+                    for (long i = 0; now < end; i++) {
+                        long intendedStart = intervalNanos > 0 ? start + offset + (long) (i * intervalNanos) : now;
+                        if (intendedStart >= end) {
+                            break;
+                        }
+                        sleepUntil(intendedStart);
+                        execute(nextOperation(random), intendedStart, random);
+                        now = System.nanoTime();
+                    }
+                });
+            }
+        }
+    }
+
+    private void execute(Operation operation, long intendedStart, Random random) {
+        boolean success;
+        try {
+            int status = client.execute(operation, random);
+            success = status / 100 == 2 || status == 304;
+        } catch (Exception e) {
+            success = false;
+        }
+        // Requests scheduled during the warmup are not reported, even if they complete later
+        if (intendedStart >= measureStart) {
+            report.record(operation, System.nanoTime() - intendedStart, success);
+        }
+    }
+
+    private Operation nextOperation(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private String mixDescription() {
+        StringBuilder description = new StringBuilder();
+        for (Map.Entry<Operation, Integer> entry : options.mix.entrySet()) {
+            if (!description.isEmpty()) {
+                description.append(',');
+            }
+            description.append(entry.getKey().key).append('=').append(entry.getValue());
+        }
+        return description.toString();
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.testExample.demo.loadgen;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Command-line options of the load generator, all as --name value pairs
+final class LoadOptions {
+
+    enum Mode { OPEN, CLOSED }
+
+    String baseUrl = "http://localhost:8080";
+    Mode mode = Mode.OPEN;
+    // Open loop: total requests/s. Closed loop: optional requests/s per worker (0 = as fast as possible)
+    double rate = 100;
+    int concurrency = 16;
+    int maxInFlight = 2000;
+    int warmupSeconds = 10;
+    int durationSeconds = 30;
+    int seedPosts = 1000;
+    int pageSize = 10;
+    long randomSeed = 42;
+    Map<Operation, Integer> mix = parseMix("timeline=40,timelineCursor=10,byId=30,create=10,update=7,delete=3");
+    Path reportDir = Path.of("target", "loadgen");
+
+    static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        boolean rateGiven = false;
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (name.equals("--help") || name.equals("-h")) {
+                throw new IllegalArgumentException(usage());
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name + "\n" + usage());
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--base-url" -> options.baseUrl = value.replaceAll("/+$", "");
+                case "--mode" -> options.mode = Mode.valueOf(value.toUpperCase());
+                case "--rate" -> {
+                    options.rate = Double.parseDouble(value);
+                    rateGiven = true;
+                }
+                case "--concurrency" -> options.concurrency = Integer.parseInt(value);
+                case "--max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "--warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "--duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "--seed-posts" -> options.seedPosts = Integer.parseInt(value);
+                case "--page-size" -> options.pageSize = Integer.parseInt(value);
+                case "--random-seed" -> options.randomSeed = Long.parseLong(value);
+                case "--mix" -> options.mix = parseMix(value);
+                case "--report-dir" -> options.reportDir = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + name + "\n" + usage());
+            }
+        }
+        if (options.mode == Mode.CLOSED && !rateGiven) {
+            options.rate = 0;
+        }
+        if (options.mode == Mode.OPEN && options.rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive in open-loop mode");
+        }
+        return options;
+    }
+
+    // "timeline=50,byId=30,create=20" -> weights per operation
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        return mix;
+    }
+
+    static String usage() {
+        return """
+                Usage: LoadGenerator [--name value]...
+                  --base-url URL        application under test (default http://localhost:8080)
+                  --mode open|closed    open: fixed arrival rate; closed: fixed number of workers (default open)
+                  --rate N              open: requests/s in total; closed: requests/s per worker (default: unthrottled)
+                  --concurrency N       closed-loop workers (default 16)
+                  --max-in-flight N     open-loop cap on outstanding requests (default 2000)
+                  --warmup S            seconds of load before recording (default 10)
+                  --duration S          seconds of recorded load (default 30)
+                  --seed-posts N        posts created through POST /posts/batch before the run (default 1000)
+                  --page-size N         timeline page size (default 10)
+                  --mix a=w,b=w         weights of timeline, timelineCursor, userTimeline, byId, user, create, update, delete
+                  --report-dir DIR      where report.json and per-endpoint .hgrm files go (default target/loadgen)
+                  --random-seed N       seed for the operation and id choices (default 42)""";
+    }
+}
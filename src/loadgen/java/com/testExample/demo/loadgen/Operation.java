@@ -0,0 +1,30 @@
+package com.testExample.demo.loadgen;
+
+// One kind of request in the load mix; the name is what --mix and the report use
+enum Operation {
+    TIMELINE("timeline", "GET /posts"),
+    TIMELINE_CURSOR("timelineCursor", "GET /posts?cursor="),
+    USER_TIMELINE("userTimeline", "GET /posts/user/{userId}"),
+    POST_BY_ID("byId", "GET /posts/{id}"),
+    USER_BY_ID("user", "GET /users/{id}"),
+    CREATE("create", "POST /posts/create"),
+    UPDATE("update", "PUT /posts/{id}"),
+    DELETE("delete", "DELETE /posts/{id}");
+
+    final String key;
+    final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in mix: " + key);
+    }
+}
@@ -0,0 +1,186 @@
+package com.testExample.demo.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// HTTP calls of the load mix. Keeps the ids of live posts so reads, updates and deletes hit existing posts,
+// and a handful of open timeline cursors so cursor reads page through the timeline like scrolling clients.
+final class PostsApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int OPEN_CURSORS = 64;
+    private static final int TIMELINE_PAGES = 5;
+
+    private final String baseUrl;
+    private final int pageSize;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final List<Long> postIds = new ArrayList<>();
+    private final AtomicReferenceArray<String> cursors = new AtomicReferenceArray<>(OPEN_CURSORS);
+    private final AtomicLong createdPosts = new AtomicLong();
+    private long userId;
+
+    PostsApiClient(String baseUrl, int pageSize) {
+        this.baseUrl = baseUrl;
+        this.pageSize = pageSize;
+    }
+
+    // Create the load-test user and seed posts in batches of at most 1000
+    void setUp(int seedPosts) throws IOException, InterruptedException {
+        String username = "loadgen-" + System.currentTimeMillis();
+        HttpResponse<String> user = send(post("/users/create",
+                Map.of("username", username, "email", username + "@example.com")));
+        expectSuccess(user, "POST /users/create");
+        userId = objectMapper.readTree(user.body()).path("userId").asLong();
+
+        for (int seeded = 0; seeded < seedPosts; seeded += 1000) {
+            List<Map<String, Object>> batch = new ArrayList<>();
+            for (int i = 0; i < Math.min(1000, seedPosts - seeded); i++) {
+                batch.add(postBody());
+            }
+            HttpResponse<String> response = send(post("/posts/batch", batch));
+            expectSuccess(response, "POST /posts/batch");
+            for (JsonNode result : objectMapper.readTree(response.body()).path("results")) {
+                if (result.path("success").asBoolean()) {
+                    addPostId(result.path("post").path("postId").asLong());
+                }
+            }
+        }
+    }
+
+    int livePosts() {
+        synchronized (postIds) {
+            return postIds.size();
+        }
+    }
+
+    // Execute one operation and return the HTTP status
+    int execute(Operation operation, Random random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case TIMELINE -> send(get("/posts?page=" + random.nextInt(TIMELINE_PAGES) + "&size=" + pageSize)).statusCode();
+            case TIMELINE_CURSOR -> timelineByCursor(random);
+            case USER_TIMELINE -> send(get("/posts/user/" + userId + "?size=" + pageSize)).statusCode();
+            case POST_BY_ID -> send(get("/posts/" + randomPostId(random))).statusCode();
+            case USER_BY_ID -> send(get("/users/" + userId)).statusCode();
+            case CREATE -> create();
+            case UPDATE -> send(put("/posts/" + randomPostId(random), postBody())).statusCode();
+            case DELETE -> delete(random);
+        };
+    }
+
+    private int timelineByCursor(Random random) throws IOException, InterruptedException {
+        int slot = random.nextInt(OPEN_CURSORS);
+        String cursor = cursors.get(slot);
+        HttpResponse<String> response = send(get("/posts?size=" + pageSize + "&cursor="
+                + (cursor == null ? "" : URLEncoder.encode(cursor, StandardCharsets.UTF_8))));
+        if (response.statusCode() == 200) {
+            // Continue from here next time; a finished timeline starts over at the first page
+            JsonNode next = objectMapper.readTree(response.body()).path("nextCursor");
+            cursors.compareAndSet(slot, cursor, next.isTextual() ? next.asText() : null);
+        }
+        return response.statusCode();
+    }
+
+    private int create() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/posts/create", postBody()));
+        if (response.statusCode() / 100 == 2) {
+            addPostId(objectMapper.readTree(response.body()).path("postId").asLong());
+        }
+        return response.statusCode();
+    }
+
+    private int delete(Random random) throws IOException, InterruptedException {
+        Long postId = takeRandomPostId(random);
+        if (postId == null) {
+            return create();
+        }
+        return send(HttpRequest.newBuilder(uri("/posts/" + postId)).timeout(REQUEST_TIMEOUT).DELETE().build()).statusCode();
+    }
+
+    private Map<String, Object> postBody() {
+        long n = createdPosts.incrementAndGet();
+        return Map.of("userId", userId, "content", Map.of(
+                "title", "Load test post " + n,
+                "description", "Generated by the load generator, post number " + n + ".",
+                "mediaFiles", List.of(Map.of("mediaUrl", "https://example.com/media/" + n + ".jpg", "mediaType", "image"))));
+    }
+
+    private void addPostId(long postId) {
+        synchronized (postIds) {
+            postIds.add(postId);
+        }
+    }
+
+    // A live post id, or 0 (a guaranteed 404) once every post has been deleted
+    private long randomPostId(Random random) {
+        synchronized (postIds) {
+            return postIds.isEmpty() ? 0 : postIds.get(random.nextInt(postIds.size()));
+        }
+    }
+
+    private Long takeRandomPostId(Random random) {
+        synchronized (postIds) {
+            if (postIds.isEmpty()) {
+                return null;
+            }
+            int index = random.nextInt(postIds.size());
+            Long postId = postIds.get(index);
+            postIds.set(index, postIds.get(postIds.size() - 1));
+            postIds.remove(postIds.size() - 1);
+            return postId;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest put(String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void expectSuccess(HttpResponse<String> response, String endpoint) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(endpoint + " returned " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
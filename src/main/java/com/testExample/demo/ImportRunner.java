@@ -0,0 +1,49 @@
+package com.testExample.demo;
+
+import com.testExample.demo.dto.ImportReportDTO;
+import com.testExample.demo.services.PostImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Imports an NDJSON file at startup, e.g. to seed staging or restore a backup:
+//   java -jar demo.jar --import.file=posts.ndjson [--import.chunk-size=500] [--import.from-line=1] [--import.to-line=0]
+@Slf4j
+@Component
+@ConditionalOnProperty("import.file")
+public class ImportRunner implements ApplicationRunner {
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Value("${import.file}")
+    private Path file;
+
+    @Value("${import.chunk-size:" + PostImportService.DEFAULT_CHUNK_SIZE + "}")
+    private int chunkSize;
+
+    @Value("${import.from-line:1}")
+    private long fromLine;
+
+    @Value("${import.to-line:0}")
+    private long toLine;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Importing {} from line {}", file, fromLine);
+        try (InputStream input = Files.newInputStream(file)) {
+            ImportReportDTO report = postImportService.importNdjson(input, chunkSize, fromLine, toLine);
+            report.getFailedChunks().forEach(failed ->
+                    log.warn("Failed chunk, retry with --import.from-line={} --import.to-line={}: {}",
+                            failed.getFromLine(), failed.getToLine(), failed.getError()));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.testExample.demo.cache;
+
+import com.testExample.demo.services.ResourceVersion;
+import lombok.Value;
+
+// A serialized post together with its conditional-GET validators
+@Value
+public class CachedPost {
+    byte[] json;
+    ResourceVersion version;
+}
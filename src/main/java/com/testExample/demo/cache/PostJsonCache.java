@@ -0,0 +1,169 @@
+package com.testExample.demo.cache;
+
+import com.testExample.demo.services.PostChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU cache of serialized GET /posts/{id} bodies (with their ETag/Last-Modified), sized by a byte budget rather than an entry count.
+// The key space is split into segments, each with its own lock, LRU order and share of the budget.
+@Component
+public class PostJsonCache {
+
+    private static final int SEGMENTS = 16;
+    // Approximate per-entry overhead of the map node, key and array header
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long maxBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PostJsonCache(@Value("${posts.cache.max-bytes:67108864}") long maxBytes) {
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxBytes / SEGMENTS);
+        }
+    }
+
+    public CachedPost get(Long postId) {
+        CachedPost post = segmentFor(postId).get(postId);
+        if (post != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return post;
+    }
+
+    // Lookup that doesn't count towards hit/miss stats (validator checks ahead of a body read)
+    public CachedPost peek(Long postId) {
+        return segmentFor(postId).get(postId);
+    }
+
+    // Call before loading a missed entry; pass the stamp to put so a load that raced with an invalidation is dropped
+    public long loadStamp(Long postId) {
+        return segmentFor(postId).generation;
+    }
+
+    public void put(Long postId, CachedPost post, long loadStamp) {
+        segmentFor(postId).put(postId, post, loadStamp);
+    }
+
+    public void invalidate(Long postId) {
+        segmentFor(postId).remove(postId);
+        invalidations.increment();
+    }
+
+    // Evict only after commit so readers can't repopulate the entry with the pre-change state
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() != PostChangedEvent.Type.CREATED) {
+            invalidate(event.getPostId());
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getSizeBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.sizeBytes();
+        }
+        return total;
+    }
+
+    public int getEntryCount() {
+        int total = 0;
+        for (Segment segment : segments) {
+            total += segment.entryCount();
+        }
+        return total;
+    }
+
+    private Segment segmentFor(Long postId) {
+        return segments[(Long.hashCode(postId) & 0x7fffffff) % SEGMENTS];
+    }
+
+    private static long weigh(CachedPost post) {
+        return post.getJson().length + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private final class Segment {
+        private final long budget;
+        // Access-ordered, so iteration starts at the least recently used entry
+        private final LinkedHashMap<Long, CachedPost> entries = new LinkedHashMap<>(64, 0.75f, true);
+        private long bytes;
+        // Bumped on every invalidation in this segment
+        private volatile long generation;
+
+        Segment(long budget) {
+            this.budget = budget;
+        }
+
+        synchronized CachedPost get(Long postId) {
+            return entries.get(postId);
+        }
+
+        synchronized void put(Long postId, CachedPost post, long loadStamp) {
+            long weight = weigh(post);
+            if (loadStamp != generation || weight > budget) {
+                return;
+            }
+            CachedPost previous = entries.put(postId, post);
+            if (previous != null) {
+                bytes -= weigh(previous);
+            }
+            bytes += weight;
+
+            Iterator<Map.Entry<Long, CachedPost>> eldest = entries.entrySet().iterator();
+            while (bytes > budget && eldest.hasNext()) {
+                bytes -= weigh(eldest.next().getValue());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        synchronized void remove(Long postId) {
+            generation++;
+            CachedPost previous = entries.remove(postId);
+            if (previous != null) {
+                bytes -= weigh(previous);
+            }
+        }
+
+        synchronized long sizeBytes() {
+            return bytes;
+        }
+
+        synchronized int entryCount() {
+            return entries.size();
+        }
+    }
+}
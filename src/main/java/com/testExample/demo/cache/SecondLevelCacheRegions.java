@@ -0,0 +1,60 @@
+package com.testExample.demo.cache;
+
+import com.testExample.demo.dto.CacheRegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Per-region counters of Hibernate's second-level and query cache (regions are configured in ehcache.xml)
+@Component
+public class SecondLevelCacheRegions {
+
+    // Query regions are otherwise only created on first use, so they would be missing from the list until then
+    private static final List<String> QUERY_REGIONS = List.of("timeline-queries");
+
+    private final Statistics statistics;
+
+    @Autowired
+    public SecondLevelCacheRegions(EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            QUERY_REGIONS.forEach(region -> sessionFactory.getCache().getQueryResultsCache(region));
+        }
+        this.statistics = sessionFactory.getStatistics();
+    }
+
+    public List<String> getRegionNames() {
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().toList();
+    }
+
+    public List<CacheRegionStatsDTO> getStats() {
+        return getRegionNames().stream()
+                .map(region -> {
+                    CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                    return new CacheRegionStatsDTO(region, stats.getHitCount(), stats.getMissCount(),
+                            stats.getPutCount(), stats.getElementCountInMemory());
+                })
+                .toList();
+    }
+
+    public long getHits(String region) {
+        CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+        return stats != null ? stats.getHitCount() : 0;
+    }
+
+    public long getMisses(String region) {
+        CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+        return stats != null ? stats.getMissCount() : 0;
+    }
+
+    public long getPuts(String region) {
+        CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+        return stats != null ? stats.getPutCount() : 0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.testExample.demo.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Request coalescing ("single flight"): concurrent callers asking for the same key share one load. The first caller
+// runs the loader on its own thread; callers arriving while it runs wait for its result, or get the same exception.
+// A waiter that has waited timeout for a stuck load stops sharing it: the load is forgotten (so later callers don't
+// queue behind it either) and the waiter starts a fresh one. Nothing is cached once a load completes.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SingleFlight(long timeoutMillis) {
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            return await(key, running, loader);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> running, Supplier<V> loader) {
+        try {
+            V value = running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            coalesced.increment();
+            return value;
+        } catch (ExecutionException e) {
+            coalesced.increment();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Load failed for " + key, e.getCause());
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            inFlight.remove(key, running);
+            return load(key, loader);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+
+    // Stop sharing the running load of key (e.g. its data just changed); callers already waiting still get its result
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    // Loads actually run
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    // Callers answered by another caller's load instead of running their own
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    // Waiters that gave up on a load running longer than the timeout
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+}
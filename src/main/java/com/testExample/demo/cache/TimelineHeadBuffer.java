@@ -0,0 +1,288 @@
+package com.testExample.demo.cache;
+
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.services.PostChangedEvent;
+import com.testExample.demo.services.ResourceVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Ring buffer holding the newest posts of the global timeline, newest first, so the first pages
+// can be served from memory. Fed by PostChangedEvent after commit and rebuilt from the repository.
+@Component
+public class TimelineHeadBuffer {
+
+    // Timeline order: newest first, postId breaks ties (same order as the repository queries)
+    private static final Comparator<PostResponseDTO> TIMELINE_ORDER = Comparator
+            .comparing(PostResponseDTO::getCreatedAtTimestamp, Comparator.reverseOrder())
+            .thenComparing(PostResponseDTO::getPostId, Comparator.reverseOrder());
+
+    private final PostResponseDTO[] ring;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Logical index 0 (the newest post) lives at ring[head]
+    private int head;
+    private int size;
+    private long totalPosts;
+    private boolean loaded;
+    // Bumped on every change so a rebuild that raced with a write can be discarded; also the pages' validator
+    private long version;
+    private long lastModifiedMillis = -1;
+    private final String instance = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    public TimelineHeadBuffer(@Value("${posts.timeline-head.capacity:100}") int capacity) {
+        this.ring = new PostResponseDTO[Math.max(capacity, 1)];
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Replace the contents with the newest posts read from the repository, unless a write happened since expectedVersion
+    public boolean reset(List<PostResponseDTO> newest, long total, long expectedVersion) {
+        lock.writeLock().lock();
+        try {
+            if (version != expectedVersion) {
+                return false;
+            }
+            int count = Math.min(newest.size(), ring.length);
+            Arrays.fill(ring, null);
+            for (int i = 0; i < count; i++) {
+                ring[i] = newest.get(i);
+            }
+            head = 0;
+            size = count;
+            totalPosts = total;
+            loaded = true;
+            version++;
+            lastModifiedMillis = System.currentTimeMillis();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // True when deletes have drained the buffer well below capacity while older posts exist in the database
+    public boolean needsRefill() {
+        lock.readLock().lock();
+        try {
+            return loaded && size < ring.length / 2 && totalPosts > size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getTotalPosts() {
+        lock.readLock().lock();
+        try {
+            return totalPosts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Posts [offset, offset + limit) of the timeline, or null if the buffer cannot answer authoritatively
+    public List<PostResponseDTO> getPage(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return count(covers(offset, limit) ? slice(offset, limit) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to limit posts strictly older than the cursor position, or null if the buffer cannot answer authoritatively
+    public List<PostResponseDTO> getPageAfter(LocalDateTime createdAt, Long postId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                return count(null);
+            }
+            PostResponseDTO probe = new PostResponseDTO();
+            probe.setCreatedAtTimestamp(createdAt);
+            probe.setPostId(postId);
+            int offset = firstIndexAfter(probe);
+            return count(covers(offset, limit) ? slice(offset, limit) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Conditional GET validator of the page getPage(offset, limit) would serve, without a database round trip;
+    // null if that page has to come from the database (then so does its validator)
+    public ResourceVersion getPageVersion(String page, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return covers(offset, limit) ? pageVersion(page) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Same for getPageAfter(createdAt, postId, limit)
+    public ResourceVersion getPageVersionAfter(String page, LocalDateTime createdAt, Long postId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                return null;
+            }
+            PostResponseDTO probe = new PostResponseDTO();
+            probe.setCreatedAtTimestamp(createdAt);
+            probe.setPostId(postId);
+            return covers(firstIndexAfter(probe), limit) ? pageVersion(page) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Pages answered from the buffer versus pages that had to go to the database
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private List<PostResponseDTO> count(List<PostResponseDTO> page) {
+        (page != null ? hits : misses).increment();
+        return page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            switch (event.getType()) {
+                case CREATED -> insert(event.getPost());
+                case UPDATED -> replace(event.getPost());
+                case DELETED -> remove(event.getPostId());
+            }
+            version++;
+            lastModifiedMillis = System.currentTimeMillis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ResourceVersion pageVersion(String page) {
+        return ResourceVersion.forTimelineHead(page, instance, version, totalPosts, lastModifiedMillis);
+    }
+
+    private boolean covers(int offset, int limit) {
+        // Either the requested window is inside the buffer, or the buffer holds every post there is
+        return loaded && (offset + limit <= size || size == totalPosts);
+    }
+
+    private List<PostResponseDTO> slice(int offset, int limit) {
+        int end = Math.min(offset + limit, size);
+        List<PostResponseDTO> page = new ArrayList<>(Math.max(end - offset, 0));
+        for (int i = offset; i < end; i++) {
+            page.add(at(i));
+        }
+        return page;
+    }
+
+    private PostResponseDTO at(int index) {
+        return ring[(head + index) % ring.length];
+    }
+
+    private void set(int index, PostResponseDTO post) {
+        ring[(head + index) % ring.length] = post;
+    }
+
+    private int firstIndexAfter(PostResponseDTO probe) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (TIMELINE_ORDER.compare(at(mid), probe) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void insert(PostResponseDTO post) {
+        if (indexOf(post.getPostId()) >= 0) {
+            // Already read (and counted) by a reset that ran after the commit
+            return;
+        }
+        boolean holdsWholeTimeline = size == totalPosts;
+        totalPosts++;
+        int position = firstIndexAfter(post);
+        if (position >= ring.length || (position >= size && !holdsWholeTimeline)) {
+            // Older than everything the buffer holds (e.g. an imported post): unless the buffer is the whole
+            // timeline, posts not buffered come between
+            return;
+        }
+        if (position == 0) {
+            // Common case: the new post is the newest, move head back one slot
+            head = (head - 1 + ring.length) % ring.length;
+            set(0, post);
+            size = Math.min(size + 1, ring.length);
+            return;
+        }
+        int last = Math.min(size, ring.length - 1);
+        for (int i = last; i > position; i--) {
+            set(i, at(i - 1));
+        }
+        set(position, post);
+        size = Math.min(size + 1, ring.length);
+    }
+
+    private void replace(PostResponseDTO post) {
+        int index = indexOf(post.getPostId());
+        if (index >= 0) {
+            set(index, post);
+        }
+    }
+
+    private void remove(Long postId) {
+        totalPosts = Math.max(totalPosts - 1, 0);
+        int index = indexOf(postId);
+        if (index < 0) {
+            return;
+        }
+        for (int i = index; i < size - 1; i++) {
+            set(i, at(i + 1));
+        }
+        set(size - 1, null);
+        size--;
+    }
+
+    private int indexOf(Long postId) {
+        for (int i = 0; i < size; i++) {
+            if (at(i).getPostId().equals(postId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,23 @@
+package com.testExample.demo.config;
+
+// Per-thread override of replica routing: when set, read-only transactions go to the primary as well
+// (read-your-writes). Set by ReadYourWritesInterceptor for the duration of a request.
+public final class ReadRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadRoutingContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,84 @@
+package com.testExample.demo.config;
+
+import com.testExample.demo.controllers.UserController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+// Pins a request's read-only transactions to the primary when it reads a user or post written within the
+// read-your-writes window. The user is the caller (X-User-Id header) or the user whose data is requested
+// (userId parameter or path variable, {id} on /users); the posts are the {id} path variable on /posts and the ids
+// of a GET /posts?ids= multi-get, whose results would otherwise also be kept in PostJsonCache.
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    public static final String USER_HEADER = "X-User-Id";
+
+    private final RecentWriteTracker recentWriteTracker;
+
+    public ReadYourWritesInterceptor(RecentWriteTracker recentWriteTracker) {
+        this.recentWriteTracker = recentWriteTracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (readsRecentWrite(request, handler)) {
+            ReadRoutingContext.requirePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadRoutingContext.clear();
+    }
+
+    private boolean readsRecentWrite(HttpServletRequest request, Object handler) {
+        if (recentWriteTracker.isUserRecentlyWritten(parseId(request.getHeader(USER_HEADER)))
+                || recentWriteTracker.isUserRecentlyWritten(parseId(request.getParameter("userId")))
+                || readsRecentPost(request.getParameterValues("ids"))) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables == null) {
+            return false;
+        }
+        if (recentWriteTracker.isUserRecentlyWritten(parseId(pathVariables.get("userId")))) {
+            return true;
+        }
+        Long id = parseId(pathVariables.get("id"));
+        boolean userResource = handler instanceof HandlerMethod method && method.getBeanType() == UserController.class;
+        return userResource ? recentWriteTracker.isUserRecentlyWritten(id) : recentWriteTracker.isPostRecentlyWritten(id);
+    }
+
+    // ids=3,1,2 or ids=3&ids=1
+    private boolean readsRecentPost(String[] ids) {
+        if (ids == null) {
+            return false;
+        }
+        for (String value : ids) {
+            for (String id : value.split(",")) {
+                if (recentWriteTracker.isPostRecentlyWritten(parseId(id.trim()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Long parseId(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
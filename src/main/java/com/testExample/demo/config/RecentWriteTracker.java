@@ -0,0 +1,68 @@
+package com.testExample.demo.config;
+
+import com.testExample.demo.services.PostChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Remembers which users and posts were written in the last N seconds (app.datasource.replica.read-your-writes-seconds),
+// so reads of them can bypass a replica that may not have caught up yet
+@Component
+public class RecentWriteTracker {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<Long, Long> userWrites = new ConcurrentHashMap<>();
+    private final Map<Long, Long> postWrites = new ConcurrentHashMap<>();
+
+    public RecentWriteTracker(@Value("${app.datasource.replica.read-your-writes-seconds:5}") long windowSeconds) {
+        this.windowNanos = windowSeconds * 1_000_000_000L;
+    }
+
+    public void recordUserWrite(Long userId) {
+        record(userWrites, userId);
+    }
+
+    public boolean isUserRecentlyWritten(Long userId) {
+        return isRecent(userWrites, userId);
+    }
+
+    public boolean isPostRecentlyWritten(Long postId) {
+        return isRecent(postWrites, postId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        record(postWrites, event.getPostId());
+        record(userWrites, event.getUserId());
+    }
+
+    private void record(Map<Long, Long> writes, Long id) {
+        if (windowNanos <= 0 || id == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        writes.put(id, now);
+        if (writes.size() > CLEANUP_THRESHOLD) {
+            evictExpired(writes, now);
+        }
+    }
+
+    private boolean isRecent(Map<Long, Long> writes, Long id) {
+        Long writtenAt = id != null ? writes.get(id) : null;
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+
+    private void evictExpired(Map<Long, Long> writes, long now) {
+        for (Iterator<Long> it = writes.values().iterator(); it.hasNext(); ) {
+            if (now - it.next() >= windowNanos) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.testExample.demo.config;
+
+import com.testExample.demo.services.PostPurger;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// With spring.main.lazy-initialization=true (the prod profile) beans are created on first use. The datasource,
+// Flyway and the EntityManagerFactory are kept eager anyway: migrations and schema validation must fail the
+// startup, not the first request, and the first GET /posts should not pay for Hibernate's bootstrap.
+// PostPurger is injected nowhere, so it would never be created (and never purge) if it were lazy.
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter persistenceEagerInitialization() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, Flyway.class, EntityManagerFactory.class,
+                PostPurger.class);
+    }
+}
@@ -0,0 +1,41 @@
+package com.testExample.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Virtual-thread execution mode. spring.threads.virtual.enabled=true makes Spring Boot run Tomcat requests
+// (and with them the @Transactional service calls) and task executors on virtual threads; this configuration
+// adds the matching JDBC guard so only as many threads as the pool has connections hold one at a time.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${app.datasource.max-concurrent-connections:0}") int maxConcurrentConnections,
+            @Value("${app.datasource.connection-wait-timeout-ms:30000}") long waitTimeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                // The read/write routing proxy only delegates to pools that are limited themselves
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource
+                        || bean instanceof LazyConnectionDataSourceProxy) {
+                    return bean;
+                }
+                // Default the limit to the pool size so waiting happens on the semaphore, not inside Hikari
+                int limit = maxConcurrentConnections > 0
+                        ? maxConcurrentConnections
+                        : bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                return new ConnectionLimitingDataSource(dataSource, limit, waitTimeoutMillis);
+            }
+        };
+    }
+}
@@ -1,13 +1,43 @@
 package com.testExample.demo.controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testExample.demo.cache.CachedPost;
+import com.testExample.demo.dto.BatchPostResponseDTO;
+import com.testExample.demo.dto.CacheRegionStatsDTO;
+import com.testExample.demo.dto.CacheStatsDTO;
+import com.testExample.demo.dto.DeletedPostsDTO;
+import com.testExample.demo.dto.ImportReportDTO;
 import com.testExample.demo.dto.PaginatedPostResponseDTO;
 import com.testExample.demo.dto.PostRequestDTO;
 import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.dto.PostSearchResponseDTO;
+import com.testExample.demo.services.GroupCommitPostWriter;
+import com.testExample.demo.services.PostImportService;
+import com.testExample.demo.services.PostReadService;
+import com.testExample.demo.services.PostSearchService;
 import com.testExample.demo.services.PostService;
+import com.testExample.demo.services.ResourceVersion;
+import com.testExample.demo.services.WriteQueueFullException;
+import com.testExample.demo.stream.PostStreamHub;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/posts")
@@ -16,55 +46,215 @@ public class PostsController {
     @Autowired
     private PostService postService;
     
-    // GET /posts/{id} - Get a post by ID
+    @Autowired
+    private PostReadService postReadService;
+    
+    @Autowired
+    private PostImportService postImportService;
+    
+    @Autowired
+    private PostSearchService postSearchService;
+    
+    @Autowired
+    private GroupCommitPostWriter groupCommitPostWriter;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PostStreamHub postStreamHub;
+    
+    // GET /posts/{id} - Get a post by ID (served as pre-serialized JSON from the post cache when hot)
+    // Answers If-None-Match/If-Modified-Since with 304 before the post is loaded or serialized
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponseDTO> getPost(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getPost(@PathVariable Long id, WebRequest webRequest) {
         try {
-            PostResponseDTO post = postService.getPostById(id);
-            return ResponseEntity.ok(post);
+            ResourceVersion version = postReadService.getPostVersion(id);
+            if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+                return null;
+            }
+            CachedPost post = postReadService.getPostById(id);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(post.getVersion().getEtag())
+                    .lastModified(post.getVersion().getLastModifiedMillis())
+                    .body(post.getJson());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    // GET /posts/cache/stats - Hit/miss/eviction counters of the single-post cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsDTO> getPostCacheStats() {
+        return ResponseEntity.ok(postReadService.getPostCacheStats());
+    }
+    
+    // GET /posts/cache/regions - Hit/miss/put counters per Hibernate second-level and query cache region
+    @GetMapping("/cache/regions")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(postReadService.getSecondLevelCacheStats());
+    }
+    
+    // GET /posts?ids=3,1,2 - Get up to 500 posts by ID in one request, in the order given:
+    // {"posts": [post or null per id], "missingIds": [ids that don't exist]}
+    @GetMapping(params = "ids")
+    public ResponseEntity<byte[]> getPostsByIds(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(postReadService.getPostsByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // GET /posts - List all posts (timeline - newest first) with pagination
+    // Passing a cursor parameter (empty for the first page) switches to keyset pagination;
+    // slice=true leaves out totalElements/totalPages for clients that only need hasNext
     @GetMapping
     public ResponseEntity<PaginatedPostResponseDTO> getAllPosts(
             @RequestParam(required = false) Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        if (userId != null) {
-            // GET /posts?userId={userId}&page={page}&size={size} - Get posts of a user with pagination
-            PaginatedPostResponseDTO response = postService.getPostsByUserId(userId, page, size);
-            return ResponseEntity.ok(response);
-        } else {
-            // GET /posts?page={page}&size={size} - Get all posts (timeline) with pagination
-            PaginatedPostResponseDTO response = postService.getAllPosts(page, size);
-            return ResponseEntity.ok(response);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean slice,
+            WebRequest webRequest) {
+        try {
+            if (isNotModified(webRequest, userId, page, size, cursor, slice)) {
+                return null;
+            }
+            if (userId != null) {
+                // GET /posts?userId={userId}&page={page}&size={size} - Get posts of a user with pagination
+                PaginatedPostResponseDTO response = cursor != null
+                        ? postReadService.getPostsByUserIdByCursor(userId, cursor, size)
+                        : postReadService.getPostsByUserId(userId, page, size, !slice);
+                return ResponseEntity.ok(response);
+            } else {
+                // GET /posts?page={page}&size={size} - Get all posts (timeline) with pagination
+                PaginatedPostResponseDTO response = cursor != null
+                        ? postReadService.getAllPostsByCursor(cursor, size)
+                        : postReadService.getAllPosts(page, size, !slice);
+                return ResponseEntity.ok(response);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
     
+    // GET /posts/stream[?userId={userId}] - Server-Sent Events of created, updated and deleted posts
+    // (event names created/updated/deleted, data is the post). Send Last-Event-ID to resume after a disconnect;
+    // a "reset" event means the gap was too long and the timeline should be reloaded.
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamPosts(
+            @RequestParam(required = false) Long userId,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(postStreamHub.subscribe(userId, lastEventId));
+    }
+    
     // GET /posts/user/{userId} - Alternative endpoint to get posts of a user with pagination
     @GetMapping("/user/{userId}")
     public ResponseEntity<PaginatedPostResponseDTO> getPostsByUser(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        PaginatedPostResponseDTO response = postService.getPostsByUserId(userId, page, size);
-        return ResponseEntity.ok(response);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean slice,
+            WebRequest webRequest) {
+        try {
+            if (isNotModified(webRequest, userId, page, size, cursor, slice)) {
+                return null;
+            }
+            PaginatedPostResponseDTO response = cursor != null
+                    ? postReadService.getPostsByUserIdByCursor(userId, cursor, size)
+                    : postReadService.getPostsByUserId(userId, page, size, !slice);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
-    // POST /posts/create - Create a new post
+    // Conditional GET for timeline pages: the ETag covers the page parameters and the timeline's state, taken from the
+    // timeline head in memory for the global pages it serves and from one aggregate query otherwise; sets
+    // ETag/Last-Modified on the response when it is not a 304
+    private boolean isNotModified(WebRequest webRequest, Long userId, int page, int size, String cursor, boolean slice) {
+        String pageKey = cursor != null ? "cursor:" + cursor + ":" + size : "page:" + page + ":" + size + (slice ? ":slice" : "");
+        ResourceVersion version = postReadService.getTimelineVersion(userId, pageKey, page, size, cursor);
+        return webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis());
+    }
+    
+    // GET /posts/search?q={text}&limit={limit} - Full-text search over titles and descriptions, best match first
+    @GetMapping("/search")
+    public ResponseEntity<PostSearchResponseDTO> searchPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(postSearchService.search(q, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // GET /posts/export - Stream posts as NDJSON (one PostResponseDTO per line), optionally filtered
+    // by userId and created-at range [from, to), e.g. /posts/export?userId=1&from=2025-01-01T00:00:00
+    @GetMapping("/export")
+    public void exportPosts(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        // Written straight to the response while rows are read, so nothing is buffered beyond one chunk
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        postService.exportPosts(out, userId, from, to);
+        out.flush();
+    }
+    
+    // POST /posts/create - Create a new post (group-committed with other posts when enabled;
+    // 503 with Retry-After when the write queue is full or the post isn't committed in time)
     @PostMapping("/create")
     public ResponseEntity<PostResponseDTO> createPost(@RequestBody PostRequestDTO postRequestDTO) {
         try {
-            PostResponseDTO createdPost = postService.createPost(postRequestDTO);
+            PostResponseDTO createdPost = groupCommitPostWriter.createPost(postRequestDTO);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdPost);
+        } catch (WriteQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    // POST /posts/batch - Create many posts at once, with a success/failure result per item
+    @PostMapping("/batch")
+    public ResponseEntity<BatchPostResponseDTO> createPostsBatch(@RequestBody List<PostRequestDTO> postRequestDTOs) {
+        try {
+            BatchPostResponseDTO response = postService.createPostsBatch(postRequestDTOs);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // POST /posts/import - Stream an NDJSON body of users/posts into the database in chunks.
+    // Failed chunks are listed with their line range; re-send the file with fromLine/toLine to retry just those.
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/plain", "application/octet-stream"})
+    public ResponseEntity<ImportReportDTO> importPosts(
+            InputStream body,
+            @RequestParam(defaultValue = "" + PostImportService.DEFAULT_CHUNK_SIZE) int chunkSize,
+            @RequestParam(defaultValue = "1") long fromLine,
+            @RequestParam(defaultValue = "0") long toLine) throws IOException {
+        try {
+            ImportReportDTO report = postImportService.importNdjson(body, chunkSize, fromLine, toLine);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // DELETE /posts/{id} - Delete a post
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePost(@PathVariable Long id) {
@@ -76,6 +266,17 @@ public class PostsController {
         }
     }
     
+    // DELETE /posts/user/{userId} - Delete all posts of a user
+    @DeleteMapping("/user/{userId}")
+    public ResponseEntity<DeletedPostsDTO> deletePostsByUser(@PathVariable Long userId) {
+        try {
+            int deleted = postService.deletePostsByUserId(userId);
+            return ResponseEntity.ok(new DeletedPostsDTO(userId, deleted));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     // PUT /posts/{id} - Update a post (full update)
     @PutMapping("/{id}")
     public ResponseEntity<PostResponseDTO> updatePost(
@@ -89,17 +290,27 @@ public class PostsController {
         }
     }
     
-    // PATCH /posts/{id} - Update a post (partial update)
+    // PATCH /posts/{id} - Update a post (partial update): only the fields present in the body are changed,
+    // e.g. {"content":{"title":"New title"}} keeps description and media; a body that changes nothing writes nothing
     @PatchMapping("/{id}")
     public ResponseEntity<PostResponseDTO> patchPost(
             @PathVariable Long id,
-            @RequestBody PostRequestDTO postRequestDTO) {
+            @RequestBody JsonNode body) {
+        PostRequestDTO patch;
         try {
-            PostResponseDTO updatedPost = postService.updatePost(id, postRequestDTO);
+            patch = objectMapper.treeToValue(body, PostRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // An absent mediaFiles deserializes to an empty list, which would mean "remove all media"
+        if (patch.getContent() != null && !body.path("content").has("mediaFiles")) {
+            patch.getContent().setMediaFiles(null);
+        }
+        try {
+            PostResponseDTO updatedPost = postService.patchPost(id, patch);
             return ResponseEntity.ok(updatedPost);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 }
-
@@ -0,0 +1,17 @@
+package com.testExample.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPostResponseDTO {
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<BatchPostResultDTO> results;
+}
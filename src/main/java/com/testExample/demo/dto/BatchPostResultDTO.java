@@ -0,0 +1,15 @@
+package com.testExample.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPostResultDTO {
+    private int index; // position in the request list
+    private boolean success;
+    private PostResponseDTO post; // set on success
+    private String error; // set on failure
+}
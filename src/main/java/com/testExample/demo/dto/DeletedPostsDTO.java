@@ -0,0 +1,13 @@
+package com.testExample.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedPostsDTO {
+    private Long userId;
+    private int deletedPosts; // hidden at once, removed from the database later by PostPurger
+}
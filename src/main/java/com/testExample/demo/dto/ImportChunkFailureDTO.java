@@ -0,0 +1,14 @@
+package com.testExample.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportChunkFailureDTO {
+    private long fromLine;
+    private long toLine;
+    private String error;
+}
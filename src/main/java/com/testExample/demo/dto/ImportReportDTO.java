@@ -0,0 +1,26 @@
+package com.testExample.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+    private long firstLine; // first line number processed (1-based)
+    private long lastLine; // last line number read
+    private long lastCommittedLine; // every line up to here is committed or reported below; resume after it
+    private long recordsRead;
+    private long usersImported;
+    private long postsImported;
+    private long recordsRejected;
+    private long chunksCommitted;
+    private long elapsedMillis;
+    private double recordsPerSecond;
+    private List<ImportChunkFailureDTO> failedChunks = new ArrayList<>(); // re-run with fromLine/toLine of each
+    private List<ImportRecordErrorDTO> recordErrors = new ArrayList<>(); // first errors only
+}
@@ -11,11 +11,12 @@ import java.util.List;
 @AllArgsConstructor
 public class PaginatedPostResponseDTO {
     private List<PostResponseDTO> posts;
-    private int currentPage;
+    private Integer currentPage; // null in cursor mode
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements; // null in cursor mode
+    private Integer totalPages; // null in cursor mode
     private boolean hasNext;
     private boolean hasPrevious;
+    private String nextCursor; // opaque keyset cursor for the next page, null when there is none
 }
 
@@ -0,0 +1,16 @@
+package com.testExample.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSearchResponseDTO {
+    private String query;
+    private int totalMatches;
+    private List<PostResponseDTO> posts; // best match first
+}
@@ -3,20 +3,28 @@ package com.testExample.demo.entities;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "content")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "content")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Content {
     
+    // Pooled sequence ids (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "content_seq")
+    @SequenceGenerator(name = "content_seq", sequenceName = "content_seq", allocationSize = 50)
     private Long contentId;
     
     @Column(nullable = false)
@@ -26,9 +34,12 @@ public class Content {
     private String description; // optional
     
     @OneToMany(mappedBy = "content", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "content-media")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<Media> mediaFiles = new ArrayList<>(); // optional
     
-    @OneToOne(mappedBy = "content")
-    private Post post;
+    // No inverse reference to Post: a mappedBy one-to-one is always fetched eagerly, costing a query by
+    // content_id per Content even when the Content itself comes from the second-level cache
 }
 
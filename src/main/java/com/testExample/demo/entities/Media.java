@@ -3,17 +3,25 @@ package com.testExample.demo.entities;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "media")
+@Table(name = "media", indexes = @Index(name = "idx_media_content", columnList = "content_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "media")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Media {
     
+    // Pooled sequence ids (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "media_seq")
+    @SequenceGenerator(name = "media_seq", sequenceName = "media_seq", allocationSize = 50)
     private Long mediaId;
     
     @Column(nullable = false)
@@ -24,6 +32,8 @@ public class Media {
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "content_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Content content;
 }
 
@@ -3,19 +3,36 @@ package com.testExample.demo.entities;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
+// Indexes for the timeline queries, their validators and PostPurger; deleted posts are hidden tombstones until purged
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_timeline", columnList = "created_at_timestamp desc, post_id desc, deleted"),
+        @Index(name = "idx_posts_user_timeline", columnList = "user_id, created_at_timestamp desc, post_id desc, deleted"),
+        @Index(name = "idx_posts_updated", columnList = "updated_at_timestamp"),
+        @Index(name = "idx_posts_deleted", columnList = "deleted_at_timestamp")
+})
+@SQLRestriction("deleted = false")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "posts")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Post {
     
+    // Pooled sequence ids (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long postId;
     
     @Column(name = "user_id", nullable = false)
@@ -27,22 +44,39 @@ public class Post {
     @Column
     private LocalDateTime updatedAtTimestamp; // null initially
     
+    @Column(nullable = false)
+    private boolean deleted;
+    
+    @Column
+    private LocalDateTime deletedAtTimestamp; // set together with deleted, null otherwise
+    
+    // Associations stay out of Lombok's equals/hashCode/toString: both sides would recurse into each other
+    // and touching them would initialize lazy proxies
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "content_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Content content;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User user;
     
+    // Timestamps are truncated to the column precision so the in-memory value matches what is stored,
+    // which keyset cursors built from either side rely on
     @PrePersist
     protected void onCreate() {
-        createdAtTimestamp = LocalDateTime.now();
+        // Imports set the original creation time
+        if (createdAtTimestamp == null) {
+            createdAtTimestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        }
     }
     
     @PreUpdate
     protected void onUpdate() {
-        updatedAtTimestamp = LocalDateTime.now();
+        updatedAtTimestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
 
@@ -0,0 +1,23 @@
+package com.testExample.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One stripe of a maintained post count. Keys are "global#<stripe>" (the global count is the sum of its
+// stripes, so concurrent writers rarely update the same row) and "user:<userId>".
+@Entity
+@Table(name = "post_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostCounter {
+    
+    @Id
+    @Column(length = 64)
+    private String counterKey;
+    
+    @Column(nullable = false)
+    private long postCount;
+}
@@ -0,0 +1,110 @@
+package com.testExample.demo.limits;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Load shedding in front of the /posts and /users controllers. Reads (GET/HEAD) and writes each get an
+// AdaptiveLimiter, so a slow database lowers the number of requests let through instead of letting them queue in
+// Tomcat until every caller times out. Requests over the limit are answered at once with 503 and Retry-After.
+// Reads are shed immediately; writes wait up to posts.admission.write.max-wait-ms for a slot first, since they
+// are costlier for clients to retry. Runs before RequestMetricsFilter so shed requests cost next to nothing.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final boolean enabled;
+    private final AdaptiveLimiter reads;
+    private final AdaptiveLimiter writes;
+    private final Set<String> exemptPaths;
+    private final String retryAfterSeconds;
+
+    public AdmissionControlFilter(
+            @Value("${posts.admission.enabled:true}") boolean enabled,
+            @Value("${posts.admission.read.initial-limit:50}") int readInitialLimit,
+            @Value("${posts.admission.read.min-limit:4}") int readMinLimit,
+            @Value("${posts.admission.read.max-limit:400}") int readMaxLimit,
+            @Value("${posts.admission.write.initial-limit:20}") int writeInitialLimit,
+            @Value("${posts.admission.write.min-limit:2}") int writeMinLimit,
+            @Value("${posts.admission.write.max-limit:200}") int writeMaxLimit,
+            @Value("${posts.admission.write.max-wait-ms:100}") long writeMaxWaitMillis,
+            @Value("${posts.admission.tolerance:1.5}") double tolerance,
+            // Streaming and bulk endpoints: their latency follows their size, not the load, and would skew the limits
+            @Value("${posts.admission.exempt-paths:/posts/export,/posts/import,/posts/batch,/posts/stream}") Set<String> exemptPaths,
+            @Value("${posts.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.enabled = enabled;
+        this.reads = new AdaptiveLimiter(readInitialLimit, readMinLimit, readMaxLimit, tolerance, 0);
+        this.writes = new AdaptiveLimiter(writeInitialLimit, writeMinLimit, writeMaxLimit, tolerance, writeMaxWaitMillis);
+        this.exemptPaths = exemptPaths;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/posts") || path.startsWith("/users")) || exemptPaths.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveLimiter limiter = isRead(request) ? reads : writes;
+        try {
+            if (!limiter.tryAcquire()) {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "read", reads);
+        bind(registry, "write", writes);
+    }
+
+    private static void bind(MeterRegistry registry, String kind, AdaptiveLimiter limiter) {
+        Gauge.builder("posts.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                .description("Current adaptive concurrency limit").tag("kind", kind).register(registry);
+        Gauge.builder("posts.admission.inflight", limiter, AdaptiveLimiter::getInFlight)
+                .description("Requests currently admitted").tag("kind", kind).register(registry);
+        FunctionCounter.builder("posts.admission.rejected", limiter, AdaptiveLimiter::getRejected)
+                .description("Requests shed with 503").tag("kind", kind).register(registry);
+    }
+}
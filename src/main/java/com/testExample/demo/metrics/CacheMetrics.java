@@ -0,0 +1,80 @@
+package com.testExample.demo.metrics;
+
+import com.testExample.demo.cache.PostJsonCache;
+import com.testExample.demo.cache.SecondLevelCacheRegions;
+import com.testExample.demo.cache.SingleFlight;
+import com.testExample.demo.cache.TimelineHeadBuffer;
+import com.testExample.demo.search.PostSearchIndex;
+import com.testExample.demo.services.PostReadService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Exposes the counters the in-memory caches already keep; hit rate = hits / (hits + misses)
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    @Autowired
+    private PostJsonCache postJsonCache;
+
+    @Autowired
+    private TimelineHeadBuffer timelineHeadBuffer;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private SecondLevelCacheRegions secondLevelCacheRegions;
+
+    @Autowired
+    private PostReadService postReadService;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("posts.cache.requests", postJsonCache, PostJsonCache::getHits)
+                .description("Single-post cache lookups").tag("cache", "post-json").tag("result", "hit").register(registry);
+        FunctionCounter.builder("posts.cache.requests", postJsonCache, PostJsonCache::getMisses)
+                .description("Single-post cache lookups").tag("cache", "post-json").tag("result", "miss").register(registry);
+        FunctionCounter.builder("posts.cache.evictions", postJsonCache, PostJsonCache::getEvictions)
+                .tag("cache", "post-json").register(registry);
+        FunctionCounter.builder("posts.cache.invalidations", postJsonCache, PostJsonCache::getInvalidations)
+                .tag("cache", "post-json").register(registry);
+        Gauge.builder("posts.cache.size", postJsonCache, PostJsonCache::getSizeBytes)
+                .baseUnit("bytes").tag("cache", "post-json").register(registry);
+        Gauge.builder("posts.cache.entries", postJsonCache, PostJsonCache::getEntryCount)
+                .tag("cache", "post-json").register(registry);
+
+        FunctionCounter.builder("posts.cache.requests", timelineHeadBuffer, TimelineHeadBuffer::getHits)
+                .description("Timeline pages served from memory").tag("cache", "timeline-head").tag("result", "hit").register(registry);
+        FunctionCounter.builder("posts.cache.requests", timelineHeadBuffer, TimelineHeadBuffer::getMisses)
+                .description("Timeline pages served from memory").tag("cache", "timeline-head").tag("result", "miss").register(registry);
+
+        for (String region : secondLevelCacheRegions.getRegionNames()) {
+            FunctionCounter.builder("posts.cache.requests", secondLevelCacheRegions, regions -> regions.getHits(region))
+                    .description("Hibernate second-level cache lookups").tag("cache", "l2:" + region).tag("result", "hit").register(registry);
+            FunctionCounter.builder("posts.cache.requests", secondLevelCacheRegions, regions -> regions.getMisses(region))
+                    .description("Hibernate second-level cache lookups").tag("cache", "l2:" + region).tag("result", "miss").register(registry);
+            FunctionCounter.builder("posts.cache.puts", secondLevelCacheRegions, regions -> regions.getPuts(region))
+                    .tag("cache", "l2:" + region).register(registry);
+        }
+
+        bindCoalescing(registry, "post", postReadService.getPostLoads());
+        bindCoalescing(registry, "timeline", postReadService.getTimelineLoads());
+
+        Gauge.builder("posts.search.index.documents", postSearchIndex, PostSearchIndex::size).register(registry);
+        Gauge.builder("posts.search.index.terms", postSearchIndex, PostSearchIndex::termCount).register(registry);
+    }
+
+    // Share of cache-miss reads collapsed into another's load = coalesced / (loads + coalesced)
+    private static void bindCoalescing(MeterRegistry registry, String kind, SingleFlight<?, ?> loads) {
+        FunctionCounter.builder("posts.read.loads", loads, SingleFlight::getLoads)
+                .description("Cache-miss reads that went to the database").tag("kind", kind).register(registry);
+        FunctionCounter.builder("posts.read.coalesced", loads, SingleFlight::getCoalesced)
+                .description("Reads answered by a concurrent identical read's load").tag("kind", kind).register(registry);
+        FunctionCounter.builder("posts.read.coalescing.timeouts", loads, SingleFlight::getTimeouts)
+                .description("Reads that stopped waiting for a slow shared load").tag("kind", kind).register(registry);
+    }
+}
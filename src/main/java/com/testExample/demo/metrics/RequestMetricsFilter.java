@@ -0,0 +1,171 @@
+package com.testExample.demo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Per-handler latency and SQL metrics for the /posts and /users API, plus the N+1 detector.
+// Every request records, tagged with its controller method (e.g. PostsController.getAllPosts):
+//   posts.requests                  - latency
+//   posts.requests.statements       - SQL statements prepared
+//   posts.requests.jdbc             - time spent executing statements
+//   posts.requests.connection.wait  - time spent waiting for a pooled connection
+// With posts.metrics.statement-budget > 0, a request issuing more statements is logged (mode warn)
+// or answered with 500 instead of its response (mode fail, meant for tests and local runs).
+@Slf4j
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    public enum BudgetMode { WARN, FAIL }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private HandlerMapping handlerMapping;
+
+    @Value("${posts.metrics.statement-budget:0}")
+    private int statementBudget;
+
+    @Value("${posts.metrics.statement-budget-mode:warn}")
+    private BudgetMode budgetMode;
+
+    // Bulk endpoints issue statements in proportion to their input and are never checked against the budget
+    @Value("${posts.metrics.statement-budget-exempt:PostsController.createPostsBatch,PostsController.importPosts,PostsController.exportPosts}")
+    private Set<String> budgetExempt;
+
+    // The event stream stays open for minutes and writes after the request thread returns: not a request to time or buffer
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/posts") || path.startsWith("/users")) || path.equals("/posts/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean enforce = statementBudget > 0 && budgetMode == BudgetMode.FAIL && !budgetExempt.contains(lookupHandler(request));
+        // Fail mode holds the response back until the statement count is known; exempt handlers (exports stream
+        // their whole table) are never failed, so they write straight through
+        ContentCachingResponseWrapper buffered = enforce ? new ContentCachingResponseWrapper(response) : null;
+        RequestStatementStats stats = RequestStatementStats.start();
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            RequestStatementStats.finish();
+
+            String handler = handlerName(request);
+            boolean overBudget = statementBudget > 0 && stats.getStatements() > statementBudget
+                    && !budgetExempt.contains(handler);
+            if (overBudget) {
+                reportOverBudget(request, handler, stats, buffered);
+            }
+            record(request, handler, response.getStatus(), elapsed, stats);
+            if (buffered != null) {
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void reportOverBudget(HttpServletRequest request, String handler, RequestStatementStats stats,
+                                  ContentCachingResponseWrapper buffered) throws IOException {
+        Counter.builder("posts.requests.statement.budget.exceeded")
+                .description("Requests that issued more SQL statements than posts.metrics.statement-budget")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .increment();
+        String message = String.format("%s %s (%s) issued %d SQL statements, budget is %d",
+                request.getMethod(), request.getRequestURI(), handler, stats.getStatements(), statementBudget);
+        if (buffered == null) {
+            log.warn("Statement budget exceeded: {}", message);
+            return;
+        }
+        log.error("Statement budget exceeded: {}", message);
+        buffered.resetBuffer();
+        buffered.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        buffered.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        buffered.getOutputStream().write(("Statement budget exceeded: " + message).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void record(HttpServletRequest request, String handler, int status, long elapsedNanos,
+                        RequestStatementStats stats) {
+        Tags tags = Tags.of("handler", handler, "method", request.getMethod(), "status", String.valueOf(status));
+        Timer.builder("posts.requests")
+                .description("Latency of API requests per controller method")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("posts.requests.statements")
+                .description("SQL statements prepared per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("posts.requests.jdbc")
+                .description("Time spent executing SQL per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("posts.requests.connection.wait")
+                .description("Time spent acquiring JDBC connections per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getConnectionWaitNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // Controller method the request will be dispatched to, resolved ahead of the DispatcherServlet
+    private String lookupHandler(HttpServletRequest request) {
+        // The mapping reads the parsed path the DispatcherServlet normally caches; restore whatever was there
+        RequestPath previousPath = ServletRequestPathUtils.hasParsedRequestPath(request)
+                ? ServletRequestPathUtils.getParsedRequestPath(request) : null;
+        ServletRequestPathUtils.parseAndCache(request);
+        try {
+            HandlerExecutionChain chain = handlerMapping.getHandler(request);
+            return chain != null ? handlerName(chain.getHandler()) : "none";
+        } catch (Exception e) {
+            // No match (e.g. unsupported media type): the DispatcherServlet reports it
+            return "none";
+        } finally {
+            ServletRequestPathUtils.setParsedRequestPath(previousPath, request);
+        }
+    }
+
+    // Controller method that handled the request, or "none" when no handler matched
+    private static String handlerName(HttpServletRequest request) {
+        return handlerName(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE));
+    }
+
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return "none";
+    }
+}
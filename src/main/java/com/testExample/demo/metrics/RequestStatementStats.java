@@ -0,0 +1,61 @@
+package com.testExample.demo.metrics;
+
+// SQL work done on the current thread while a request is being handled.
+// Started and finished by RequestMetricsFilter, fed by StatementCountingSessionListener.
+public final class RequestStatementStats {
+
+    private static final ThreadLocal<RequestStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int batches;
+    private long jdbcNanos;
+    private long connectionWaitNanos;
+
+    static RequestStatementStats start() {
+        RequestStatementStats stats = new RequestStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void finish() {
+        CURRENT.remove();
+    }
+
+    // The stats of the request on this thread, or null outside a request (startup, schedulers)
+    static RequestStatementStats current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    void batchExecuted(long nanos) {
+        batches++;
+        jdbcNanos += nanos;
+    }
+
+    void statementExecuted(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    void connectionAcquired(long nanos) {
+        connectionWaitNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+}
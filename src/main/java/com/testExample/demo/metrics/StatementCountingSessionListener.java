@@ -0,0 +1,59 @@
+package com.testExample.demo.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Hibernate creates one of these per session (hibernate.session.events.auto) and reports every JDBC
+// prepare/execute/batch and connection acquisition to it; the timings are added to the current request's stats
+public class StatementCountingSessionListener extends BaseSessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+    private long acquisitionStart;
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        RequestStatementStats stats = RequestStatementStats.current();
+        if (stats != null) {
+            stats.statementPrepared();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatementStats stats = RequestStatementStats.current();
+        if (stats != null) {
+            stats.statementExecuted(System.nanoTime() - executeStart);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestStatementStats stats = RequestStatementStats.current();
+        if (stats != null) {
+            stats.batchExecuted(System.nanoTime() - batchStart);
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestStatementStats stats = RequestStatementStats.current();
+        if (stats != null) {
+            stats.connectionAcquired(System.nanoTime() - acquisitionStart);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.testExample.demo.repositories;
+
+import com.testExample.demo.entities.Media;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MediaRepository extends JpaRepository<Media, Long> {
+    // Media of many contents in one query (used where Content.mediaFiles must not be initialized one by one)
+    @Query("SELECT m FROM Media m WHERE m.content.contentId IN :contentIds ORDER BY m.mediaId")
+    List<Media> findByContentIdIn(@Param("contentIds") Collection<Long> contentIds);
+
+    // Media of purged posts, set-based (see PostRepository.purgePosts for the query space)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "purged_posts"))
+    @Query(value = "DELETE FROM media WHERE content_id IN (:contentIds)", nativeQuery = true)
+    int purgeByContentIdIn(@Param("contentIds") Collection<Long> contentIds);
+}
@@ -0,0 +1,34 @@
+package com.testExample.demo.repositories;
+
+import com.testExample.demo.entities.PostCounter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface PostCounterRepository extends JpaRepository<PostCounter, String> {
+    
+    // Add delta to a counter row, creating it on first use (standard SQL MERGE, a single statement).
+    // The native-spaces hint tells Hibernate only post_counters changed; without it a native update
+    // invalidates the whole second-level cache.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_counters"))
+    @Query(value = "MERGE INTO post_counters t " +
+            "USING (VALUES (CAST(:counterKey AS VARCHAR(64)), CAST(:delta AS BIGINT))) AS s (counter_key, delta) " +
+            "ON t.counter_key = s.counter_key " +
+            "WHEN MATCHED THEN UPDATE SET post_count = t.post_count + s.delta " +
+            "WHEN NOT MATCHED THEN INSERT (counter_key, post_count) VALUES (s.counter_key, s.delta)",
+            nativeQuery = true)
+    int add(@Param("counterKey") String counterKey, @Param("delta") long delta);
+    
+    // Sum of the given counter rows (missing rows count as 0)
+    @Query("SELECT COALESCE(SUM(c.postCount), 0) FROM PostCounter c WHERE c.counterKey IN :counterKeys")
+    long sumCounts(@Param("counterKeys") Collection<String> counterKeys);
+}
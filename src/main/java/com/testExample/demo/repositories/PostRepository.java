@@ -1,17 +1,170 @@
 package com.testExample.demo.repositories;
 
 import com.testExample.demo.entities.Post;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-    Page<Post> findByUserIdOrderByCreatedAtTimestampDesc(Long userId, Pageable pageable);
-    
-    @Query("SELECT p FROM Post p ORDER BY p.createdAtTimestamp DESC")
-    Page<Post> findAllOrderByCreatedAtTimestampDesc(Pageable pageable);
-}
+    // Timeline pages, phase one: the (query-cached) page of post ids in index order; the fetch plans below load them
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "timeline-queries")
+    })
+    @Query("SELECT p.postId FROM Post p ORDER BY p.createdAtTimestamp DESC, p.postId DESC")
+    Slice<Long> findTimelinePostIds(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "timeline-queries")
+    })
+    @Query("SELECT p.postId FROM Post p WHERE p.userId = :userId ORDER BY p.userId, p.createdAtTimestamp DESC, p.postId DESC")
+    Slice<Long> findUserTimelinePostIds(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset (cursor) pagination - newest first, postId breaks ties between equal timestamps
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "timeline-queries")
+    })
+    @Query("SELECT p.postId FROM Post p ORDER BY p.createdAtTimestamp DESC, p.postId DESC")
+    List<Long> findTimelineFirstPageIds(Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "timeline-queries")
+    })
+    @Query("SELECT p.postId FROM Post p " +
+            "WHERE p.createdAtTimestamp < :createdAt " +
+            "OR (p.createdAtTimestamp = :createdAt AND p.postId < :postId) " +
+            "ORDER BY p.createdAtTimestamp DESC, p.postId DESC")
+    List<Long> findTimelinePageIdsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("postId") Long postId,
+                                        Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "timeline-queries")
+    })
+    @Query("SELECT p.postId FROM Post p WHERE p.userId = :userId ORDER BY p.userId, p.createdAtTimestamp DESC, p.postId DESC")
+    List<Long> findUserTimelineFirstPageIds(@Param("userId") Long userId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "timeline-queries")
+    })
+    @Query("SELECT p.postId FROM Post p " +
+            "WHERE p.userId = :userId " +
+            "AND (p.createdAtTimestamp < :createdAt " +
+            "OR (p.createdAtTimestamp = :createdAt AND p.postId < :postId)) " +
+            "ORDER BY p.userId, p.createdAtTimestamp DESC, p.postId DESC")
+    List<Long> findUserTimelinePageIdsAfter(@Param("userId") Long userId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("postId") Long postId,
+                                            Limit limit);
+
+    // Fetch plans - load Post, Content and Media in a single round trip (order is not preserved)
+    @EntityGraph(attributePaths = {"content", "content.mediaFiles"})
+    @Query("SELECT p FROM Post p WHERE p.postId IN :postIds")
+    List<Post> findWithContentByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @EntityGraph(attributePaths = {"content", "content.mediaFiles"})
+    @Query("SELECT p FROM Post p WHERE p.postId = :postId")
+    Optional<Post> findWithContentByPostId(@Param("postId") Long postId);
+
+    // Conditional GET validators - cheap reads that never touch Content or Media
+    @Query("SELECT p.postId AS postId, p.createdAtTimestamp AS createdAtTimestamp, p.updatedAtTimestamp AS updatedAtTimestamp " +
+            "FROM Post p WHERE p.postId = :postId")
+    Optional<PostVersionView> findVersionByPostId(@Param("postId") Long postId);
 
+    // Native SQL over every row, tombstones included, so the maxima are read from the ends of the indexes
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "timeline-queries"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "posts")
+    })
+    @Query(value = "SELECT MAX(post_id) AS newestPostId, MAX(created_at_timestamp) AS newestCreatedAt, " +
+            "MAX(updated_at_timestamp) AS latestUpdatedAt FROM posts", nativeQuery = true)
+    TimelineVersionView findTimelineVersion();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "timeline-queries")
+    })
+    @Query("SELECT MAX(p.postId) AS newestPostId, MAX(p.createdAtTimestamp) AS newestCreatedAt, " +
+            "MAX(p.updatedAtTimestamp) AS latestUpdatedAt FROM Post p WHERE p.userId = :userId")
+    TimelineVersionView findUserTimelineVersion(@Param("userId") Long userId);
+
+    // Actual post counts per user, only for reconciling the maintained counters at startup
+    @Query("SELECT p.userId AS userId, COUNT(p) AS postCount FROM Post p GROUP BY p.userId")
+    List<UserPostCountView> countPostsByUser();
+
+    // Forward-only cursor over posts (with their Content) for exports, optionally filtered by user and
+    // created-at range [from, to). Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Post p JOIN FETCH p.content " +
+            "WHERE (:userId IS NULL OR p.userId = :userId) " +
+            "AND (:from IS NULL OR p.createdAtTimestamp >= :from) " +
+            "AND (:to IS NULL OR p.createdAtTimestamp < :to) " +
+            "ORDER BY p.postId")
+    Stream<Post> streamForExport(@Param("userId") Long userId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    // Searchable text of every post, for (re)building the in-memory search index
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.postId AS postId, p.createdAtTimestamp AS createdAtTimestamp, " +
+            "c.title AS title, c.description AS description FROM Post p JOIN p.content c")
+    Stream<PostSearchView> streamForSearchIndex();
+
+    // Soft delete of many posts, in a query space of its own so the posts cache region survives (the caller evicts them)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "soft_deleted_posts"))
+    @Query(value = "UPDATE posts SET deleted = true, deleted_at_timestamp = :deletedAt " +
+            "WHERE post_id IN (:postIds) AND deleted = false", nativeQuery = true)
+    int softDeleteAll(@Param("postIds") Collection<Long> postIds, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Ids of a user's posts, row-locked until the transaction ends so a concurrent single delete waits for it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.postId FROM Post p WHERE p.userId = :userId")
+    List<Long> lockPostIdsByUserId(@Param("userId") Long userId);
+
+    // Tombstones deleted before the cutoff, oldest first, for PostPurger (native: the entity's restriction hides them)
+    @Query(value = "SELECT post_id AS postId, content_id AS contentId FROM posts WHERE deleted_at_timestamp < :before " +
+            "ORDER BY deleted_at_timestamp FETCH FIRST :limit ROWS ONLY", nativeQuery = true)
+    List<TombstoneView> findTombstones(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    // Purge of tombstones, in a query space of its own so the posts and content cache regions survive
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "purged_posts"))
+    @Query(value = "DELETE FROM posts WHERE post_id IN (:postIds) AND deleted = true", nativeQuery = true)
+    int purgePosts(@Param("postIds") Collection<Long> postIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "purged_posts"))
+    @Query(value = "DELETE FROM content WHERE content_id IN (:contentIds)", nativeQuery = true)
+    int purgeContents(@Param("contentIds") Collection<Long> contentIds);
+}
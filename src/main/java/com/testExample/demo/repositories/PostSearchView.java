@@ -0,0 +1,11 @@
+package com.testExample.demo.repositories;
+
+import java.time.LocalDateTime;
+
+// The searchable text of a post, read without materializing entities
+public interface PostSearchView {
+    Long getPostId();
+    LocalDateTime getCreatedAtTimestamp();
+    String getTitle();
+    String getDescription();
+}
@@ -0,0 +1,10 @@
+package com.testExample.demo.repositories;
+
+import java.time.LocalDateTime;
+
+// Timestamps of a single post, read without loading Content or Media
+public interface PostVersionView {
+    Long getPostId();
+    LocalDateTime getCreatedAtTimestamp();
+    LocalDateTime getUpdatedAtTimestamp();
+}
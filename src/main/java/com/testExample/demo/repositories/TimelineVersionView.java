@@ -0,0 +1,10 @@
+package com.testExample.demo.repositories;
+
+import java.time.LocalDateTime;
+
+// Aggregate state of a timeline: together with the post count, changes whenever a post in it is created, updated or deleted
+public interface TimelineVersionView {
+    Long getNewestPostId();
+    LocalDateTime getNewestCreatedAt();
+    LocalDateTime getLatestUpdatedAt();
+}
@@ -0,0 +1,7 @@
+package com.testExample.demo.repositories;
+
+// A soft-deleted post waiting to be purged, with the content row that goes with it
+public interface TombstoneView {
+    Long getPostId();
+    Long getContentId();
+}
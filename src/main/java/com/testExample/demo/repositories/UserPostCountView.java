@@ -0,0 +1,7 @@
+package com.testExample.demo.repositories;
+
+// Actual number of posts of a user, for reconciling the maintained counters
+public interface UserPostCountView {
+    Long getUserId();
+    long getPostCount();
+}
@@ -0,0 +1,406 @@
+package com.testExample.demo.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over post titles and descriptions.
+// Every indexed version of a post gets a new, increasing doc id, so posting lists are append-only sorted int
+// arrays; updates and deletes just clear the old doc's live bit, and dead docs are compacted away in bulk.
+// Writers are serialized by writeMutex and take the write lock only to apply their change, so a compaction builds
+// the new postings while searches go on and blocks them only to swap them in.
+// Queries match all terms (falling back to any term when that finds fewer than the limit) and rank by BM25
+// times a recency boost.
+@Component
+public class PostSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // Title terms count this many times towards term frequency
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MIN_COMPACTION_DOCS = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock writeMutex = new ReentrantLock();
+    private final double recencyHalfLifeHours;
+
+    private Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docByPostId = new HashMap<>();
+    // Per-doc columns, indexed by doc id
+    private long[] postIds = new long[1024];
+    private long[] createdAtEpochSeconds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private BitSet live = new BitSet();
+    private int docCount;
+    private int liveCount;
+    private long liveLengthSum;
+
+    public PostSearchIndex(@Value("${posts.search.recency-half-life-hours:72}") double recencyHalfLifeHours) {
+        this.recencyHalfLifeHours = recencyHalfLifeHours;
+    }
+
+    // Add or replace the indexed text of a post
+    public void index(Long postId, LocalDateTime createdAt, String title, String description) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        int length = 0;
+        for (String term : Tokenizer.tokenize(title)) {
+            termFrequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String term : Tokenizer.tokenize(description)) {
+            termFrequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+
+        writeMutex.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                removeLocked(postId);
+                int doc = docCount++;
+                ensureCapacity(docCount);
+                postIds[doc] = postId;
+                createdAtEpochSeconds[doc] = createdAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+                docLengths[doc] = length;
+                live.set(doc);
+                liveCount++;
+                liveLengthSum += length;
+                docByPostId.put(postId, doc);
+                termFrequencies.forEach((term, tf) ->
+                        postings.computeIfAbsent(term, t -> new PostingList()).add(doc, tf));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            compactIfNeeded();
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        writeMutex.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                removeLocked(postId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            compactIfNeeded();
+        } finally {
+            writeMutex.unlock();
+        }
+    }
+
+    public void clear() {
+        writeMutex.lock();
+        lock.writeLock().lock();
+        try {
+            postings = new HashMap<>();
+            docByPostId.clear();
+            live = new BitSet();
+            docCount = 0;
+            liveCount = 0;
+            liveLengthSum = 0;
+        } finally {
+            lock.writeLock().unlock();
+            writeMutex.unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Top postIds for the query, best first
+    public SearchResult search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchResult(List.of(), 0);
+        }
+        long nowEpochSeconds = System.currentTimeMillis() / 1000;
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            boolean allTermsPresent = true;
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    allTermsPresent = false;
+                } else {
+                    lists.add(list);
+                }
+            }
+            if (lists.isEmpty()) {
+                return new SearchResult(List.of(), 0);
+            }
+            // Shortest list first: it drives the intersection
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            TopK top = new TopK(limit);
+            int matches = 0;
+            if (allTermsPresent) {
+                matches = intersect(lists, top, nowEpochSeconds);
+            }
+            if (matches < limit) {
+                top = new TopK(limit);
+                matches = union(lists, top, nowEpochSeconds);
+            }
+            return new SearchResult(top.postIdsBestFirst(postIds), matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int intersect(List<PostingList> lists, TopK top, long now) {
+        PostingList driver = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        int matches = 0;
+        outer:
+        for (int i = 0; i < driver.size; i++) {
+            int doc = driver.docs[i];
+            if (!live.get(doc)) {
+                continue;
+            }
+            float score = termScore(driver, i);
+            for (int l = 1; l < lists.size(); l++) {
+                PostingList list = lists.get(l);
+                int position = list.seek(doc, cursors[l]);
+                cursors[l] = position;
+                if (position >= list.size) {
+                    break outer;
+                }
+                if (list.docs[position] != doc) {
+                    continue outer;
+                }
+                score += termScore(list, position);
+            }
+            matches++;
+            top.offer(doc, withRecency(score, doc, now));
+        }
+        return matches;
+    }
+
+    // Doc at a time over the sorted lists: each doc's score is complete once, with no per-candidate allocation
+    private int union(List<PostingList> lists, TopK top, long now) {
+        int[] cursors = new int[lists.size()];
+        int matches = 0;
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int l = 0; l < lists.size(); l++) {
+                PostingList list = lists.get(l);
+                if (cursors[l] < list.size && list.docs[cursors[l]] < doc) {
+                    doc = list.docs[cursors[l]];
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                return matches;
+            }
+            float score = 0;
+            for (int l = 0; l < lists.size(); l++) {
+                PostingList list = lists.get(l);
+                if (cursors[l] < list.size && list.docs[cursors[l]] == doc) {
+                    score += termScore(list, cursors[l]++);
+                }
+            }
+            if (live.get(doc)) {
+                matches++;
+                top.offer(doc, withRecency(score, doc, now));
+            }
+        }
+    }
+
+    // BM25 contribution of one posting
+    private float termScore(PostingList list, int position) {
+        float averageLength = liveCount == 0 ? 1 : (float) liveLengthSum / liveCount;
+        int documentFrequency = Math.min(list.size, Math.max(liveCount, 1));
+        double idf = Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        int tf = list.tfs[position];
+        int length = docLengths[list.docs[position]];
+        return (float) (idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength)));
+    }
+
+    // Newer posts get up to twice the text score, halving the bonus every half-life
+    private float withRecency(float score, int doc, long now) {
+        double ageHours = Math.max(0, now - createdAtEpochSeconds[doc]) / 3600.0;
+        return (float) (score * (1 + Math.pow(0.5, ageHours / recencyHalfLifeHours)));
+    }
+
+    private void removeLocked(Long postId) {
+        Integer doc = docByPostId.remove(postId);
+        if (doc == null) {
+            return;
+        }
+        live.clear(doc);
+        liveCount--;
+        liveLengthSum -= docLengths[doc];
+    }
+
+    // Called holding writeMutex, without the write lock
+    private void compactIfNeeded() {
+        if (docCount >= MIN_COMPACTION_DOCS && docCount - liveCount > liveCount) {
+            compact();
+        }
+    }
+
+    // Drop dead docs from every posting list and renumber the live ones densely (order is preserved).
+    // Other writers are excluded by writeMutex, so nothing changes while the compacted copy is built without the lock
+    // (searches keep running); it is swapped in under the write lock.
+    private void compact() {
+        int[] remap = new int[docCount];
+        long[] compactedPostIds = new long[postIds.length];
+        long[] compactedCreatedAt = new long[createdAtEpochSeconds.length];
+        int[] compactedLengths = new int[docLengths.length];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (live.get(doc)) {
+                remap[doc] = next;
+                compactedPostIds[next] = postIds[doc];
+                compactedCreatedAt[next] = createdAtEpochSeconds[doc];
+                compactedLengths[next] = docLengths[doc];
+                next++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+
+        Map<String, PostingList> compacted = new HashMap<>();
+        postings.forEach((term, list) -> {
+            PostingList kept = new PostingList();
+            for (int i = 0; i < list.size; i++) {
+                int doc = remap[list.docs[i]];
+                if (doc >= 0) {
+                    kept.add(doc, list.tfs[i]);
+                }
+            }
+            if (kept.size > 0) {
+                kept.trim();
+                compacted.put(term, kept);
+            }
+        });
+        BitSet compactedLive = new BitSet(next);
+        compactedLive.set(0, next);
+
+        lock.writeLock().lock();
+        try {
+            postings = compacted;
+            postIds = compactedPostIds;
+            createdAtEpochSeconds = compactedCreatedAt;
+            docLengths = compactedLengths;
+            live = compactedLive;
+            docCount = next;
+            docByPostId.replaceAll((postId, doc) -> remap[doc]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > postIds.length) {
+            int grown = Math.max(capacity, postIds.length * 2);
+            postIds = Arrays.copyOf(postIds, grown);
+            createdAtEpochSeconds = Arrays.copyOf(createdAtEpochSeconds, grown);
+            docLengths = Arrays.copyOf(docLengths, grown);
+        }
+    }
+
+    public record SearchResult(List<Long> postIds, int totalMatches) {
+    }
+
+    // Sorted doc ids with their term frequencies, in growable primitive arrays
+    private static final class PostingList {
+        int[] docs = new int[4];
+        short[] tfs = new short[4];
+        int size;
+
+        void add(int doc, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = (short) Math.min(tf, Short.MAX_VALUE);
+            size++;
+        }
+
+        void trim() {
+            docs = Arrays.copyOf(docs, size);
+            tfs = Arrays.copyOf(tfs, size);
+        }
+
+        // First position >= from whose doc is >= target (galloping, then binary search)
+        int seek(int target, int from) {
+            int bound = 1;
+            while (from + bound < size && docs[from + bound] < target) {
+                bound <<= 1;
+            }
+            int low = from + (bound >> 1);
+            int high = Math.min(from + bound + 1, size);
+            int index = Arrays.binarySearch(docs, low, high, target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    // Bounded min-heap keeping the k best scores
+    private static final class TopK {
+        private final int k;
+        private final PriorityQueue<long[]> heap;
+
+        TopK(int k) {
+            this.k = k;
+            // Entries are {doc, floatBits(score)}; scores are non-negative so the bit patterns order like the floats
+            this.heap = new PriorityQueue<>(k + 1, Comparator.comparingLong((long[] e) -> e[1]).thenComparingLong(e -> e[0]));
+        }
+
+        void offer(int doc, float score) {
+            long bits = Float.floatToIntBits(Math.max(score, 0f));
+            if (heap.size() < k) {
+                heap.add(new long[]{doc, bits});
+            } else if (bits > heap.peek()[1] || (bits == heap.peek()[1] && doc > heap.peek()[0])) {
+                heap.poll();
+                heap.add(new long[]{doc, bits});
+            }
+        }
+
+        List<Long> postIdsBestFirst(long[] postIds) {
+            long[][] entries = heap.toArray(new long[0][]);
+            // Best score first; on ties the newer doc wins
+            Arrays.sort(entries, Comparator.comparingLong((long[] e) -> e[1]).thenComparingLong(e -> e[0]).reversed());
+            List<Long> result = new ArrayList<>(entries.length);
+            for (long[] entry : entries) {
+                result.add(postIds[(int) entry[0]]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.dto.BatchPostResponseDTO;
+import com.testExample.demo.dto.BatchPostResultDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.dto.PostResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Group commit for single-post creation. With posts.write.group-commit.enabled=true, createPost requests are queued
+// and one writer thread commits them in micro-batches through PostService.createPostsBatch: a batch is flushed when it
+// reaches max-batch posts or max-delay-ms after its first post arrived, so under bursts many requests share one
+// transaction (and one commit) while a lone request waits at most max-delay-ms. Each caller blocks until its own post
+// is committed, for at most timeout-ms: a post the writer has not taken by then is withdrawn (never committed) and,
+// like a full queue, createPost fails with WriteQueueFullException.
+// Disabled (the default), createPost simply calls PostService.createPost.
+@Slf4j
+@Service
+public class GroupCommitPostWriter implements MeterBinder {
+
+    @Autowired
+    private PostService postService;
+
+    @Value("${posts.write.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${posts.write.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${posts.write.group-commit.max-batch:200}")
+    private int maxBatch;
+
+    @Value("${posts.write.group-commit.max-delay-ms:5}")
+    private long maxDelayMillis;
+
+    @Value("${posts.write.group-commit.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private BlockingQueue<PendingPost> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder batchesCommitted = new LongAdder();
+    private final LongAdder postsCommitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (maxBatch < 1 || maxBatch > PostService.MAX_BATCH_POSTS) {
+            throw new IllegalStateException("posts.write.group-commit.max-batch must be between 1 and " + PostService.MAX_BATCH_POSTS);
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = Thread.ofPlatform().name("post-group-commit").daemon().start(this::writeLoop);
+    }
+
+    // Stop accepting posts and commit whatever is still queued
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        failAbandoned();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Create a post, returning once it is committed
+    public PostResponseDTO createPost(PostRequestDTO postRequestDTO) {
+        if (!enabled) {
+            return postService.createPost(postRequestDTO);
+        }
+        PendingPost pending = enqueue(postRequestDTO);
+        try {
+            return pending.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw withdraw(pending, "Interrupted while waiting for the post write queue");
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            throw withdraw(pending, "Post was not committed within " + timeoutMillis + " ms");
+        }
+    }
+
+    public CompletableFuture<PostResponseDTO> submit(PostRequestDTO postRequestDTO) {
+        return enqueue(postRequestDTO).result;
+    }
+
+    private PendingPost enqueue(PostRequestDTO postRequestDTO) {
+        if (!running) {
+            throw new WriteQueueFullException("Post write queue is not accepting posts");
+        }
+        PendingPost pending = new PendingPost(postRequestDTO, new CompletableFuture<>(), new AtomicBoolean());
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            throw new WriteQueueFullException("Post write queue is full (" + queueCapacity + " pending)");
+        }
+        return pending;
+    }
+
+    // Give up waiting. Unless the writer already took the post into a batch it is dropped, so retrying can't duplicate it;
+    // a post taken into a batch that is still committing may yet be saved.
+    private WriteQueueFullException withdraw(PendingPost pending, String message) {
+        WriteQueueFullException failure = new WriteQueueFullException(message);
+        if (pending.claimed.compareAndSet(false, true)) {
+            queue.remove(pending);
+            pending.result.completeExceptionally(failure);
+        }
+        return failure;
+    }
+
+    private void writeLoop() {
+        List<PendingPost> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPost first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    PendingPost next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                // Skip posts whose callers gave up waiting
+                batch.removeIf(pending -> !pending.claimed.compareAndSet(false, true));
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                // commit() completes every future itself; this only guards the loop
+                log.error("Group commit writer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        failAbandoned();
+    }
+
+    // Posts left after an interrupt, or offered while the writer stopped: fail them rather than leave callers waiting
+    private void failAbandoned() {
+        PendingPost abandoned;
+        while ((abandoned = queue.poll()) != null) {
+            abandoned.result.completeExceptionally(new WriteQueueFullException("Post write queue was shut down"));
+        }
+    }
+
+    private void commit(List<PendingPost> batch) {
+        BatchPostResponseDTO response;
+        try {
+            response = postService.createPostsBatch(batch.stream().map(PendingPost::request).toList());
+        } catch (RuntimeException e) {
+            // One bad row must not fail its neighbours: fall back to a transaction per post
+            log.warn("Group commit of {} posts failed ({}), retrying them one by one", batch.size(), e.getMessage());
+            batch.forEach(this::commitAlone);
+            return;
+        }
+        batchesCommitted.increment();
+        postsCommitted.add(response.getSucceeded());
+        for (BatchPostResultDTO result : response.getResults()) {
+            CompletableFuture<PostResponseDTO> future = batch.get(result.getIndex()).result;
+            if (result.isSuccess()) {
+                future.complete(result.getPost());
+            } else {
+                future.completeExceptionally(new IllegalArgumentException(result.getError()));
+            }
+        }
+    }
+
+    private void commitAlone(PendingPost pending) {
+        try {
+            pending.result.complete(postService.createPost(pending.request));
+            batchesCommitted.increment();
+            postsCommitted.increment();
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("posts.write.queue.depth", queue, BlockingQueue::size).register(registry);
+        FunctionCounter.builder("posts.write.batches", batchesCommitted, LongAdder::sum)
+                .description("Group-commit transactions").register(registry);
+        FunctionCounter.builder("posts.write.posts", postsCommitted, LongAdder::sum)
+                .description("Posts committed through group commit").register(registry);
+        FunctionCounter.builder("posts.write.rejected", rejected, LongAdder::sum)
+                .description("Posts rejected because the write queue was full").register(registry);
+        FunctionCounter.builder("posts.write.timeouts", timedOut, LongAdder::sum)
+                .description("Posts withdrawn or abandoned because they were not committed in time").register(registry);
+    }
+
+    // claimed is set once by whoever owns the post: the writer taking it into a batch, or its caller withdrawing it
+    private record PendingPost(PostRequestDTO request, CompletableFuture<PostResponseDTO> result, AtomicBoolean claimed) {
+    }
+}
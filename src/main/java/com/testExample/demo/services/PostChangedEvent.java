@@ -0,0 +1,20 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.dto.PostResponseDTO;
+import lombok.Value;
+
+// Published by PostService for every post write; listeners react after the transaction commits
+@Value
+public class PostChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    Type type;
+    Long postId;
+    Long userId;
+    PostResponseDTO post; // state after the change, null for DELETED
+}
@@ -0,0 +1,193 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.entities.PostCounter;
+import com.testExample.demo.repositories.PostCounterRepository;
+import com.testExample.demo.repositories.PostRepository;
+import com.testExample.demo.repositories.UserPostCountView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Maintained global and per-user post counts, so timeline pages never run COUNT(*).
+// The post_counters table is updated in the same transaction as the posts and is what readers see, so every instance
+// counts every instance's writes. Each count read is cached for posts.counters.cache-ms, meanwhile adjusted after
+// commit by this instance's own PostChangedEvents. The table is reconciled against the posts table at startup.
+@Slf4j
+@Service
+public class PostCounterService {
+    
+    private static final String GLOBAL_PREFIX = "global#";
+    private static final String USER_PREFIX = "user:";
+    private static final int CLEANUP_THRESHOLD = 10_000;
+    
+    @Autowired
+    private PostCounterRepository postCounterRepository;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    // Rows the global count is spread over; more stripes mean less row-lock contention between writers
+    @Value("${posts.counters.stripes:8}")
+    private int stripes;
+    
+    @Value("${posts.counters.cache-ms:1000}")
+    private long cacheMillis;
+    
+    private volatile CachedCount totalPosts;
+    private final Map<Long, CachedCount> userPosts = new ConcurrentHashMap<>();
+    
+    public long getTotalPosts() {
+        CachedCount cached = totalPosts;
+        if (cached == null || cached.isExpired()) {
+            List<String> stripeKeys = new ArrayList<>(stripes);
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                stripeKeys.add(GLOBAL_PREFIX + stripe);
+            }
+            cached = new CachedCount(postCounterRepository.sumCounts(stripeKeys));
+            totalPosts = cached;
+        }
+        return cached.count.sum();
+    }
+    
+    public long getUserPostCount(Long userId) {
+        CachedCount cached = userPosts.get(userId);
+        if (cached == null || cached.isExpired()) {
+            cached = new CachedCount(postCounterRepository.sumCounts(List.of(USER_PREFIX + userId)));
+            if (userPosts.size() > CLEANUP_THRESHOLD) {
+                userPosts.values().removeIf(CachedCount::isExpired);
+            }
+            userPosts.put(userId, cached);
+        }
+        return cached.count.sum();
+    }
+    
+    // Record posts created (positive delta) or deleted (negative) in the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addPosts(Map<Long, Long> deltasByUserId) {
+        long total = 0;
+        // Rows are locked in user id order, so concurrent batches over overlapping users cannot deadlock
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(deltasByUserId).entrySet()) {
+            if (entry.getValue() != 0) {
+                postCounterRepository.add(USER_PREFIX + entry.getKey(), entry.getValue());
+                total += entry.getValue();
+            }
+        }
+        if (total != 0) {
+            postCounterRepository.add(GLOBAL_PREFIX + ThreadLocalRandom.current().nextInt(stripes), total);
+        }
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addPosts(Long userId, long delta) {
+        addPosts(Map.of(userId, delta));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        long delta = switch (event.getType()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        // Only counts already cached; the next read of any other comes from the table, which has this commit
+        CachedCount total = totalPosts;
+        if (delta != 0 && total != null) {
+            total.count.add(delta);
+        }
+        CachedCount user = delta != 0 && event.getUserId() != null ? userPosts.get(event.getUserId()) : null;
+        if (user != null) {
+            user.count.add(delta);
+        }
+    }
+    
+    // Compare the counter table with the actual counts and repair drift.
+    // Runs before other startup listeners that read the counts.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void reconcile() {
+        Map<String, Long> actual = new HashMap<>();
+        long total = 0;
+        for (UserPostCountView count : postRepository.countPostsByUser()) {
+            actual.put(USER_PREFIX + count.getUserId(), count.getPostCount());
+            total += count.getPostCount();
+        }
+        
+        Map<String, Long> stored = new HashMap<>();
+        Set<String> storedStripes = new HashSet<>();
+        long storedTotal = 0;
+        for (PostCounter counter : postCounterRepository.findAll()) {
+            if (counter.getCounterKey().startsWith(GLOBAL_PREFIX)) {
+                storedTotal += counter.getPostCount();
+                storedStripes.add(counter.getCounterKey());
+            } else {
+                stored.put(counter.getCounterKey(), counter.getPostCount());
+            }
+        }
+        
+        int repaired = 0;
+        for (Map.Entry<String, Long> entry : actual.entrySet()) {
+            long drift = entry.getValue() - stored.getOrDefault(entry.getKey(), 0L);
+            if (drift != 0) {
+                postCounterRepository.add(entry.getKey(), drift);
+                repaired++;
+            }
+        }
+        for (Map.Entry<String, Long> entry : stored.entrySet()) {
+            if (!actual.containsKey(entry.getKey()) && entry.getValue() != 0) {
+                postCounterRepository.add(entry.getKey(), -entry.getValue());
+                repaired++;
+            }
+        }
+        // Create every stripe row up front: concurrent first inserts of the same key would collide
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (!storedStripes.contains(GLOBAL_PREFIX + stripe)) {
+                postCounterRepository.add(GLOBAL_PREFIX + stripe, 0);
+            }
+        }
+        if (storedTotal != total) {
+            postCounterRepository.add(GLOBAL_PREFIX + 0, total - storedTotal);
+            repaired++;
+        }
+        if (repaired > 0) {
+            log.warn("Repaired {} drifted post counters (total was {}, actual {})", repaired, storedTotal, total);
+        }
+        
+        totalPosts = null;
+        userPosts.clear();
+        log.info("Post counters checked: {} posts, {} users", total, actual.size());
+    }
+    
+    // A count read from the table; LongAdder so after-commit adjustments don't contend
+    private final class CachedCount {
+        private final LongAdder count = new LongAdder();
+        private final long readAtNanos = System.nanoTime();
+        
+        private CachedCount(long count) {
+            this.count.add(count);
+        }
+        
+        private boolean isExpired() {
+            return System.nanoTime() - readAtNanos >= cacheMillis * 1_000_000;
+        }
+    }
+}
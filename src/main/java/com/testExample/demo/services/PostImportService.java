@@ -0,0 +1,285 @@
+package com.testExample.demo.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testExample.demo.dto.*;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Streams an NDJSON file of users and posts into the database in fixed-size chunks, one transaction per chunk.
+// Each line is either a user ({"type":"user","userId":..,"username":..,"email":..}) or a post
+// ({"type":"post","userId":..,"createdAtTimestamp":..,"content":{..}}); without "type" the record kind is inferred, so
+// the output of GET /posts/export can be imported as-is.
+// Imported users get new ids: a post's userId that a user line of the file declared is mapped to that user's new id
+// (also when resuming, by looking the skipped users up by username); any other userId must be an existing user.
+// Posts keep their createdAtTimestamp/updatedAtTimestamp when given, so an export is restored with the same timeline.
+@Slf4j
+@Service
+public class PostImportService {
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+    public static final int MAX_CHUNK_SIZE = PostService.MAX_BATCH_POSTS;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Import lines [fromLine, toLine] (1-based, inclusive; toLine <= 0 means to the end of the input)
+    public ImportReportDTO importNdjson(InputStream input, int chunkSize, long fromLine, long toLine) throws IOException {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        long firstLine = Math.max(fromLine, 1);
+
+        ImportReportDTO report = new ImportReportDTO();
+        report.setFirstLine(firstLine);
+        report.setLastCommittedLine(firstLine - 1);
+        long start = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        // Source userId -> new userId, null for users declared in the file that were not imported
+        Map<Long, Long> userIds = new HashMap<>();
+        // Users on the skipped lines, by username, until their new ids are looked up
+        Map<String, Long> skippedUsers = new HashMap<>();
+        Chunk chunk = new Chunk();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber < firstLine) {
+                collectSkippedUser(line, skippedUsers, userIds);
+                continue;
+            }
+            if (!skippedUsers.isEmpty()) {
+                resolveSkippedUsers(skippedUsers, userIds);
+            }
+            if (toLine > 0 && lineNumber > toLine) {
+                break;
+            }
+            report.setLastLine(lineNumber);
+            if (line.isBlank()) {
+                continue;
+            }
+            report.setRecordsRead(report.getRecordsRead() + 1);
+            parseInto(chunk, line, lineNumber, report, userIds);
+
+            if (chunk.size() >= chunkSize) {
+                commitChunk(chunk, lineNumber, report, start, userIds);
+                chunk = new Chunk();
+            }
+        }
+        commitChunk(chunk, report.getLastLine(), report, start, userIds);
+
+        finish(report, start);
+        log.info("Import finished: lines {}-{}, {} users, {} posts, {} rejected, {} failed chunks, {} records/s",
+                report.getFirstLine(), report.getLastLine(), report.getUsersImported(), report.getPostsImported(),
+                report.getRecordsRejected(), report.getFailedChunks().size(), Math.round(report.getRecordsPerSecond()));
+        return report;
+    }
+
+    // A user line before the resume point: its user was imported by an earlier run, if at all
+    private void collectSkippedUser(String line, Map<String, Long> skippedUsers, Map<Long, Long> userIds) {
+        // Most skipped lines are posts; don't parse those
+        if (!line.contains("\"username\"")) {
+            return;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.hasNonNull("userId") && node.hasNonNull("username") && !node.has("content")) {
+                skippedUsers.put(node.get("username").asText(), node.get("userId").asLong());
+            }
+        } catch (JsonProcessingException e) {
+            // Rejected by the earlier run
+            return;
+        }
+        if (skippedUsers.size() >= MAX_CHUNK_SIZE) {
+            resolveSkippedUsers(skippedUsers, userIds);
+        }
+    }
+
+    private void resolveSkippedUsers(Map<String, Long> skippedUsers, Map<Long, Long> userIds) {
+        for (Long sourceId : skippedUsers.values()) {
+            userIds.put(sourceId, null);
+        }
+        for (User user : userRepository.findByUsernameIn(skippedUsers.keySet())) {
+            userIds.put(skippedUsers.get(user.getUsername()), user.getUserId());
+        }
+        skippedUsers.clear();
+    }
+
+    private void parseInto(Chunk chunk, String line, long lineNumber, ImportReportDTO report, Map<Long, Long> userIds) {
+        if (chunk.fromLine == 0) {
+            chunk.fromLine = lineNumber;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            String type = node.path("type").asText("");
+            if (type.isEmpty()) {
+                type = node.has("username") ? "user" : node.has("content") ? "post" : "";
+            }
+            switch (type) {
+                case "user" -> {
+                    UserRequestDTO user = objectMapper.treeToValue(node, UserRequestDTO.class);
+                    Long sourceId = node.hasNonNull("userId") ? node.get("userId").asLong() : null;
+                    if (isBlank(user.getUsername()) || isBlank(user.getEmail())) {
+                        reject(report, lineNumber, "username and email are required");
+                        if (sourceId != null) {
+                            userIds.put(sourceId, null);
+                        }
+                    } else {
+                        chunk.users.add(user);
+                        chunk.userSourceIds.add(sourceId);
+                    }
+                }
+                case "post" -> {
+                    chunk.posts.add(objectMapper.treeToValue(node, PostResponseDTO.class));
+                    chunk.postLines.add(lineNumber);
+                }
+                default -> reject(report, lineNumber, "Unknown record type");
+            }
+        } catch (JsonProcessingException e) {
+            reject(report, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    // Commit one chunk in its own transaction; on failure record the line range so it can be re-imported alone
+    private void commitChunk(Chunk chunk, long toLine, ImportReportDTO report, long start, Map<Long, Long> userIds) {
+        if (chunk.fromLine == 0) {
+            return;
+        }
+        // Posts of users declared in the file but not imported are rejected rather than attached to whichever user
+        // has the same id here
+        Set<Long> chunkSourceIds = new HashSet<>(chunk.userSourceIds);
+        List<PostResponseDTO> chunkPosts = new ArrayList<>(chunk.posts.size());
+        List<Long> postLines = new ArrayList<>(chunk.posts.size());
+        for (int i = 0; i < chunk.posts.size(); i++) {
+            Long userId = chunk.posts.get(i).getUserId();
+            if (!chunkSourceIds.contains(userId) && userIds.containsKey(userId) && userIds.get(userId) == null) {
+                reject(report, chunk.postLines.get(i), "User " + userId + " of this file was not imported");
+            } else {
+                chunkPosts.add(chunk.posts.get(i));
+                postLines.add(chunk.postLines.get(i));
+            }
+        }
+
+        Map<Long, Long> chunkUserIds = new HashMap<>();
+        try {
+            BatchPostResponseDTO posts = transactionTemplate.execute(status -> {
+                List<User> users = chunk.users.stream().map(dto -> {
+                    User user = new User();
+                    user.setUsername(dto.getUsername());
+                    user.setEmail(dto.getEmail());
+                    return user;
+                }).toList();
+                userRepository.saveAll(users);
+                // Users must exist before posts of the same chunk reference them
+                userRepository.flush();
+                for (int i = 0; i < users.size(); i++) {
+                    if (chunk.userSourceIds.get(i) != null) {
+                        chunkUserIds.put(chunk.userSourceIds.get(i), users.get(i).getUserId());
+                    }
+                }
+
+                List<PostRequestDTO> requests = chunkPosts.stream()
+                        .map(post -> new PostRequestDTO(newUserId(post.getUserId(), chunkUserIds, userIds), post.getContent()))
+                        .toList();
+                return postService.createPostsBatch(requests, chunkPosts);
+            });
+
+            userIds.putAll(chunkUserIds);
+            report.setUsersImported(report.getUsersImported() + chunk.users.size());
+            report.setPostsImported(report.getPostsImported() + posts.getSucceeded());
+            for (BatchPostResultDTO result : posts.getResults()) {
+                if (!result.isSuccess()) {
+                    reject(report, postLines.get(result.getIndex()), result.getError());
+                }
+            }
+            report.setChunksCommitted(report.getChunksCommitted() + 1);
+        } catch (RuntimeException e) {
+            log.warn("Import chunk {}-{} failed: {}", chunk.fromLine, toLine, e.getMessage());
+            report.getFailedChunks().add(new ImportChunkFailureDTO(chunk.fromLine, toLine, rootMessage(e)));
+            // Posts further down must not be attached to whichever user has the same id here
+            for (Long sourceId : chunk.userSourceIds) {
+                if (sourceId != null) {
+                    userIds.put(sourceId, null);
+                }
+            }
+        }
+        report.setLastCommittedLine(toLine);
+
+        finish(report, start);
+        log.info("Import progress: line {}, {} users, {} posts, {} rejected, {} records/s",
+                toLine, report.getUsersImported(), report.getPostsImported(),
+                report.getRecordsRejected(), Math.round(report.getRecordsPerSecond()));
+    }
+
+    private static Long newUserId(Long userId, Map<Long, Long> chunkUserIds, Map<Long, Long> userIds) {
+        if (chunkUserIds.containsKey(userId)) {
+            return chunkUserIds.get(userId);
+        }
+        return userIds.getOrDefault(userId, userId);
+    }
+
+    private void finish(ImportReportDTO report, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMillis(elapsedNanos / 1_000_000);
+        report.setRecordsPerSecond(elapsedNanos == 0 ? 0 : report.getRecordsRead() * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    private void reject(ImportReportDTO report, long lineNumber, String error) {
+        report.setRecordsRejected(report.getRecordsRejected() + 1);
+        if (report.getRecordErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getRecordErrors().add(new ImportRecordErrorDTO(lineNumber, error));
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static final class Chunk {
+        long fromLine;
+        final List<UserRequestDTO> users = new ArrayList<>();
+        final List<Long> userSourceIds = new ArrayList<>();
+        final List<PostResponseDTO> posts = new ArrayList<>();
+        final List<Long> postLines = new ArrayList<>();
+
+        int size() {
+            return users.size() + posts.size();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.testExample.demo.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Background hard delete of soft-deleted posts. Every posts.purge.interval-ms one thread removes the tombstones older
+// than posts.purge.retention-ms, oldest first, in batches of posts.purge.batch-size (PostService.purgeDeletedPosts, a
+// short transaction each) until none are left, sleeping posts.purge.pause-ms between batches: a big purge (a spammer's
+// thousands of posts) is spread out instead of holding locks and a connection that foreground requests need.
+@Slf4j
+@Service
+public class PostPurger implements MeterBinder {
+
+    @Autowired
+    private PostService postService;
+
+    @Value("${posts.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${posts.purge.interval-ms:60000}")
+    private long intervalMillis;
+
+    @Value("${posts.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${posts.purge.pause-ms:200}")
+    private long pauseMillis;
+
+    @Value("${posts.purge.retention-ms:3600000}")
+    private long retentionMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder purgedPosts = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (batchSize < 1 || batchSize > PostService.MAX_BATCH_POSTS) {
+            throw new IllegalStateException("posts.purge.batch-size must be between 1 and " + PostService.MAX_BATCH_POSTS);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "post-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purgeSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Purge batches until no tombstones older than the retention are left; returns the number of posts purged.
+    // The cutoff is fixed for the run, so deletes arriving meanwhile can't keep it going.
+    public long purge() throws InterruptedException {
+        LocalDateTime deletedBefore = LocalDateTime.now().minus(Duration.ofMillis(retentionMillis));
+        long purged = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            int batch = postService.purgeDeletedPosts(deletedBefore, batchSize);
+            if (batch > 0) {
+                batches.increment();
+                purgedPosts.add(batch);
+                purged += batch;
+            }
+            if (batch < batchSize) {
+                break;
+            }
+            Thread.sleep(pauseMillis);
+        }
+        return purged;
+    }
+
+    private void purgeSafely() {
+        try {
+            long purged = purge();
+            if (purged > 0) {
+                log.info("Purged {} deleted posts", purged);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the same tombstones are retried next time
+            log.warn("Purging deleted posts failed", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("posts.purge.posts", purgedPosts, LongAdder::sum)
+                .description("Soft-deleted posts removed by the purger").register(registry);
+        FunctionCounter.builder("posts.purge.batches", batches, LongAdder::sum)
+                .description("Purge transactions").register(registry);
+    }
+}
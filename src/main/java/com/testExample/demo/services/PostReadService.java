@@ -0,0 +1,304 @@
+package com.testExample.demo.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testExample.demo.cache.CachedPost;
+import com.testExample.demo.cache.PostJsonCache;
+import com.testExample.demo.cache.SecondLevelCacheRegions;
+import com.testExample.demo.cache.SingleFlight;
+import com.testExample.demo.cache.TimelineHeadBuffer;
+import com.testExample.demo.config.ReadRoutingContext;
+import com.testExample.demo.dto.CacheRegionStatsDTO;
+import com.testExample.demo.dto.CacheStatsDTO;
+import com.testExample.demo.dto.PaginatedPostResponseDTO;
+import com.testExample.demo.dto.PostResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Non-transactional read front for PostService: cache and timeline-head hits are answered without opening a transaction.
+// Misses are coalesced: concurrent requests for the same post or timeline page share one database load
+// (posts.read.coalescing.*), so an expired hot entry costs one query instead of one per waiting request.
+@Service
+public class PostReadService {
+    
+    public static final int MAX_MULTI_GET_IDS = 500;
+    
+    private final boolean coalescing;
+    private final SingleFlight<Long, CachedPost> postLoads;
+    private final SingleFlight<String, PaginatedPostResponseDTO> timelineLoads;
+    
+    @Autowired
+    private PostService postService;
+    
+    @Autowired
+    private PostJsonCache postJsonCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TimelineHeadBuffer timelineHeadBuffer;
+    
+    @Autowired
+    private PostCounterService postCounterService;
+    
+    @Autowired
+    private SecondLevelCacheRegions secondLevelCacheRegions;
+    
+    public PostReadService(@Value("${posts.read.coalescing.enabled:true}") boolean coalescing,
+                           @Value("${posts.read.coalescing.timeout-ms:2000}") long timeoutMillis) {
+        this.coalescing = coalescing;
+        this.postLoads = new SingleFlight<>(timeoutMillis);
+        this.timelineLoads = new SingleFlight<>(timeoutMillis);
+    }
+    
+    // Get a post by ID as serialized JSON with its validators, from the cache when possible
+    public CachedPost getPostById(Long id) {
+        CachedPost post = postJsonCache.get(id);
+        if (post != null) {
+            return post;
+        }
+        
+        return coalesce(postLoads, id, () -> {
+            long loadStamp = postJsonCache.loadStamp(id);
+            CachedPost loaded = serialize(postService.getPostById(id));
+            postJsonCache.put(id, loaded, loadStamp);
+            return loaded;
+        });
+    }
+    
+    // A request pinned to the primary (read-your-writes) loads on its own: a shared load may be reading the replica
+    private <K, V> V coalesce(SingleFlight<K, V> loads, K key, Supplier<V> loader) {
+        if (!coalescing || ReadRoutingContext.isPrimaryRequired()) {
+            return loader.get();
+        }
+        return loads.load(key, loader);
+    }
+    
+    private CachedPost serialize(PostResponseDTO dto) {
+        try {
+            return new CachedPost(objectMapper.writeValueAsBytes(dto),
+                    ResourceVersion.forPost(dto.getPostId(), dto.getCreatedAtTimestamp(), dto.getUpdatedAtTimestamp()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize post " + dto.getPostId(), e);
+        }
+    }
+    
+    // Get several posts by ID in one call, as a JSON object {"posts": [...], "missingIds": [...]}.
+    // "posts" has one element per requested id, in request order, with null where the post doesn't exist.
+    // Cached posts are copied from their serialized bytes; the rest are loaded together (one fetch, see
+    // PostService.getPostsByIds), serialized once and added to the cache.
+    public byte[] getPostsByIds(List<Long> ids) {
+        if (ids.size() > MAX_MULTI_GET_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_MULTI_GET_IDS + " ids per request");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Post ids must not be empty");
+        }
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Long, byte[]> found = new HashMap<>();
+        Map<Long, Long> loadStamps = new HashMap<>();
+        for (Long id : uniqueIds) {
+            CachedPost post = postJsonCache.get(id);
+            if (post != null) {
+                found.put(id, post.getJson());
+            } else {
+                loadStamps.put(id, postJsonCache.loadStamp(id));
+            }
+        }
+        
+        if (!loadStamps.isEmpty()) {
+            for (PostResponseDTO dto : postService.getPostsByIds(new ArrayList<>(loadStamps.keySet()))) {
+                CachedPost post = serialize(dto);
+                postJsonCache.put(dto.getPostId(), post, loadStamps.get(dto.getPostId()));
+                found.put(dto.getPostId(), post.getJson());
+            }
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream(found.size() * 512 + 64);
+        out.writeBytes(ascii("{\"posts\":["));
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            byte[] json = found.get(ids.get(i));
+            out.writeBytes(json != null ? json : ascii("null"));
+        }
+        out.writeBytes(ascii("],\"missingIds\":["));
+        boolean first = true;
+        for (Long id : uniqueIds) {
+            if (!found.containsKey(id)) {
+                if (!first) {
+                    out.write(',');
+                }
+                out.writeBytes(ascii(id.toString()));
+                first = false;
+            }
+        }
+        out.writeBytes(ascii("]}"));
+        return out.toByteArray();
+    }
+    
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    // Validators of a post without loading or serializing it: from the cache, else a timestamps-only query
+    public ResourceVersion getPostVersion(Long id) {
+        CachedPost post = postJsonCache.peek(id);
+        return post != null ? post.getVersion() : postService.getPostVersion(id);
+    }
+    
+    // Validators of a timeline page (global when userId is null) for conditional GET. A global page the timeline head
+    // serves gets them from the head too; anything else costs the aggregate query (PostService.getTimelineVersion).
+    public ResourceVersion getTimelineVersion(Long userId, String pageKey, int page, int size, String cursor) {
+        if (userId == null && size > 0) {
+            int pageSize = Math.min(size, 10);
+            ResourceVersion version;
+            if (cursor == null) {
+                version = timelineHeadBuffer.getPageVersion(pageKey, Math.max(page, 0) * pageSize, pageSize);
+            } else if (cursor.isEmpty()) {
+                version = timelineHeadBuffer.getPageVersion(pageKey, 0, pageSize + 1);
+            } else {
+                PostCursor after = PostCursor.decode(cursor);
+                version = timelineHeadBuffer.getPageVersionAfter(pageKey, after.getCreatedAtTimestamp(), after.getPostId(),
+                        pageSize + 1);
+            }
+            if (version != null) {
+                return version;
+            }
+        }
+        return postService.getTimelineVersion(userId, pageKey);
+    }
+    
+    // Get all posts (timeline - newest first) with pagination, from the timeline head when the page falls inside it
+    public PaginatedPostResponseDTO getAllPosts(int page, int size) {
+        return getAllPosts(page, size, true);
+    }
+    
+    // Same, optionally without totalElements/totalPages (slice semantics: hasNext only)
+    public PaginatedPostResponseDTO getAllPosts(int page, int size, boolean withTotals) {
+        int pageSize = Math.min(size, 10);
+        int pageNumber = Math.max(page, 0);
+        
+        if (pageSize > 0) {
+            List<PostResponseDTO> posts = timelineHeadBuffer.getPage(pageNumber * pageSize, pageSize);
+            if (posts != null) {
+                long total = timelineHeadBuffer.getTotalPosts();
+                int totalPages = (int) Math.ceil((double) total / pageSize);
+                
+                PaginatedPostResponseDTO response = new PaginatedPostResponseDTO();
+                response.setPosts(posts);
+                response.setCurrentPage(pageNumber);
+                response.setPageSize(pageSize);
+                if (withTotals) {
+                    response.setTotalElements(total);
+                    response.setTotalPages(totalPages);
+                }
+                response.setHasNext(pageNumber + 1 < totalPages);
+                response.setHasPrevious(pageNumber > 0);
+                return response;
+            }
+        }
+        
+        refillTimelineHeadIfDrained();
+        return coalesce(timelineLoads, "page:" + page + ":" + size + ":" + withTotals,
+                () -> postService.getAllPosts(page, size, withTotals));
+    }
+    
+    // Get all posts with keyset pagination, from the timeline head when the page falls inside it
+    public PaginatedPostResponseDTO getAllPostsByCursor(String cursor, int size) {
+        int pageSize = Math.max(Math.min(size, 10), 1);
+        boolean firstPage = cursor == null || cursor.isEmpty();
+        
+        // Ask for one extra post to learn whether there is a next page
+        List<PostResponseDTO> posts;
+        if (firstPage) {
+            posts = timelineHeadBuffer.getPage(0, pageSize + 1);
+        } else {
+            PostCursor after = PostCursor.decode(cursor);
+            posts = timelineHeadBuffer.getPageAfter(after.getCreatedAtTimestamp(), after.getPostId(), pageSize + 1);
+        }
+        
+        if (posts != null) {
+            boolean hasNext = posts.size() > pageSize;
+            List<PostResponseDTO> pagePosts = hasNext ? posts.subList(0, pageSize) : posts;
+            
+            PaginatedPostResponseDTO response = new PaginatedPostResponseDTO();
+            response.setPosts(pagePosts);
+            response.setPageSize(pageSize);
+            response.setHasNext(hasNext);
+            response.setHasPrevious(!firstPage);
+            if (hasNext) {
+                PostResponseDTO last = pagePosts.get(pagePosts.size() - 1);
+                response.setNextCursor(new PostCursor(last.getCreatedAtTimestamp(), last.getPostId()).encode());
+            }
+            return response;
+        }
+        
+        refillTimelineHeadIfDrained();
+        return coalesce(timelineLoads, "cursor:" + cursor + ":" + size,
+                () -> postService.getAllPostsByCursor(cursor, size));
+    }
+    
+    // Get posts of a user with pagination (coalesced, see getAllPosts)
+    public PaginatedPostResponseDTO getPostsByUserId(Long userId, int page, int size, boolean withTotals) {
+        return coalesce(timelineLoads, "user:" + userId + ":page:" + page + ":" + size + ":" + withTotals,
+                () -> postService.getPostsByUserId(userId, page, size, withTotals));
+    }
+    
+    // Get posts of a user with keyset pagination (coalesced, see getAllPosts)
+    public PaginatedPostResponseDTO getPostsByUserIdByCursor(Long userId, String cursor, int size) {
+        return coalesce(timelineLoads, "user:" + userId + ":cursor:" + cursor + ":" + size,
+                () -> postService.getPostsByUserIdByCursor(userId, cursor, size));
+    }
+    
+    // Loads already running when a post changes may have read it before the commit; later callers start new ones
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        postLoads.forget(event.getPostId());
+        timelineLoads.forgetAll();
+    }
+    
+    public SingleFlight<Long, CachedPost> getPostLoads() {
+        return postLoads;
+    }
+    
+    public SingleFlight<String, PaginatedPostResponseDTO> getTimelineLoads() {
+        return timelineLoads;
+    }
+    
+    private void refillTimelineHeadIfDrained() {
+        if (timelineHeadBuffer.needsRefill()) {
+            postService.refreshTimelineHead();
+        }
+    }
+    
+    public CacheStatsDTO getPostCacheStats() {
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setHits(postJsonCache.getHits());
+        stats.setMisses(postJsonCache.getMisses());
+        stats.setEvictions(postJsonCache.getEvictions());
+        stats.setInvalidations(postJsonCache.getInvalidations());
+        stats.setEntries(postJsonCache.getEntryCount());
+        stats.setSizeBytes(postJsonCache.getSizeBytes());
+        stats.setMaxBytes(postJsonCache.getMaxBytes());
+        return stats;
+    }
+    
+    public List<CacheRegionStatsDTO> getSecondLevelCacheStats() {
+        return secondLevelCacheRegions.getStats();
+    }
+}
@@ -0,0 +1,90 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.dto.PostSearchResponseDTO;
+import com.testExample.demo.repositories.PostRepository;
+import com.testExample.demo.repositories.PostSearchView;
+import com.testExample.demo.search.PostSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Full-text search over post titles and descriptions, backed by PostSearchIndex.
+// The index is rebuilt from the repository at startup and kept current from PostChangedEvent.
+@Slf4j
+@Service
+public class PostSearchService {
+    
+    public static final int MAX_RESULTS = 50;
+    
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private PostService postService;
+    
+    // Posts changed while a rebuild is streaming; their streamed rows may be stale and are skipped
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    
+    // Search posts, best match first
+    public PostSearchResponseDTO search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int resultLimit = Math.max(Math.min(limit, MAX_RESULTS), 1);
+        PostSearchIndex.SearchResult result = postSearchIndex.search(query, resultLimit);
+        List<PostResponseDTO> posts = result.postIds().isEmpty()
+                ? List.of()
+                : postService.getPostsByIds(result.postIds());
+        return new PostSearchResponseDTO(query, result.totalMatches(), posts);
+    }
+    
+    // Rebuild the index from the repository
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        long start = System.nanoTime();
+        // Clear before marking the rebuild: a post indexed from its event in between would otherwise be wiped and
+        // then skipped as changed
+        postSearchIndex.clear();
+        rebuilding = true;
+        try (Stream<PostSearchView> posts = postRepository.streamForSearchIndex()) {
+            posts.filter(post -> !changedDuringRebuild.contains(post.getPostId()))
+                    .forEach(post -> postSearchIndex.index(post.getPostId(), post.getCreatedAtTimestamp(),
+                            post.getTitle(), post.getDescription()));
+        } finally {
+            rebuilding = false;
+            changedDuringRebuild.clear();
+        }
+        log.info("Search index rebuilt: {} posts, {} terms in {} ms",
+                postSearchIndex.size(), postSearchIndex.termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.add(event.getPostId());
+        }
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            postSearchIndex.remove(event.getPostId());
+        } else {
+            PostResponseDTO post = event.getPost();
+            postSearchIndex.index(post.getPostId(), post.getCreatedAtTimestamp(),
+                    post.getContent() != null ? post.getContent().getTitle() : null,
+                    post.getContent() != null ? post.getContent().getDescription() : null);
+        }
+    }
+}
@@ -1,18 +1,53 @@
 package com.testExample.demo.services;
 
+import com.testExample.demo.cache.TimelineHeadBuffer;
 import com.testExample.demo.dto.*;
 import com.testExample.demo.entities.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testExample.demo.repositories.MediaRepository;
 import com.testExample.demo.repositories.PostRepository;
+import com.testExample.demo.repositories.PostVersionView;
+import com.testExample.demo.repositories.TimelineVersionView;
+import com.testExample.demo.repositories.TombstoneView;
 import com.testExample.demo.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -24,8 +59,46 @@ public class PostService {
     @Autowired
     private UserRepository userRepository;
     
-    // Convert Entity to DTO
-    private PostResponseDTO convertToDTO(Post post) {
+    @Autowired
+    private MediaRepository mediaRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TimelineHeadBuffer timelineHeadBuffer;
+    
+    @Autowired
+    private PostCounterService postCounterService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Flush/clear interval for bulk writes, kept equal to the JDBC batch size
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    
+    public static final int MAX_BATCH_POSTS = 1000;
+    
+    // Collection cache role of Content.mediaFiles
+    private static final String MEDIA_FILES_ROLE = Content.class.getName() + ".mediaFiles";
+    
+    // Query cache region of the timeline queries (see PostRepository)
+    private static final String TIMELINE_QUERIES_REGION = "timeline-queries";
+    
+    // Posts per export chunk: one media query and one persistence-context clear per chunk
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    
+    // Convert Entity to DTO (package-private for the mapping benchmarks in src/jmh)
+    PostResponseDTO convertToDTO(Post post) {
+        return convertToDTO(post, post.getContent() != null ? post.getContent().getMediaFiles() : null);
+    }
+    
+    // Convert Entity to DTO using media loaded separately, leaving Content.mediaFiles untouched
+    private PostResponseDTO convertToDTO(Post post, List<Media> mediaFiles) {
         PostResponseDTO dto = new PostResponseDTO();
         dto.setPostId(post.getPostId());
         dto.setUserId(post.getUserId());
@@ -33,20 +106,20 @@ public class PostService {
         dto.setUpdatedAtTimestamp(post.getUpdatedAtTimestamp());
         
         if (post.getContent() != null) {
-            dto.setContent(convertContentToDTO(post.getContent()));
+            dto.setContent(convertContentToDTO(post.getContent(), mediaFiles));
         }
         
         return dto;
     }
     
-    private ContentDTO convertContentToDTO(Content content) {
+    private ContentDTO convertContentToDTO(Content content, List<Media> mediaFiles) {
         ContentDTO dto = new ContentDTO();
         dto.setContentId(content.getContentId());
         dto.setTitle(content.getTitle());
         dto.setDescription(content.getDescription());
         
-        if (content.getMediaFiles() != null && !content.getMediaFiles().isEmpty()) {
-            dto.setMediaFiles(content.getMediaFiles().stream()
+        if (mediaFiles != null && !mediaFiles.isEmpty()) {
+            dto.setMediaFiles(mediaFiles.stream()
                     .map(this::convertMediaToDTO)
                     .collect(Collectors.toList()));
         }
@@ -62,8 +135,8 @@ public class PostService {
         return dto;
     }
     
-    // Convert DTO to Entity
-    private Post convertToEntity(PostRequestDTO dto) {
+    // Convert DTO to Entity (package-private for the mapping benchmarks in src/jmh)
+    Post convertToEntity(PostRequestDTO dto) {
         Post post = new Post();
         post.setUserId(dto.getUserId());
         
@@ -85,122 +158,535 @@ public class PostService {
         }
         
         post.setContent(content);
-        content.setPost(post);
         
         return post;
     }
     
+    // Load posts with Content and Media for a page of ids, keeping the page order.
+    // Posts whose Post, Content and media list are all in the second-level cache are assembled from it without SQL;
+    // the rest come from one fetch of Post + Content + Media.
+    private List<Post> loadPostsInOrder(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> positions = new HashMap<>();
+        List<Post> posts = new ArrayList<>(postIds.size());
+        List<Long> uncachedIds = new ArrayList<>();
+        for (int i = 0; i < postIds.size(); i++) {
+            positions.put(postIds.get(i), i);
+            Post cached = findFullyCached(postIds.get(i));
+            if (cached != null) {
+                posts.add(cached);
+            } else {
+                uncachedIds.add(postIds.get(i));
+            }
+        }
+        if (!uncachedIds.isEmpty()) {
+            posts.addAll(postRepository.findWithContentByPostIdIn(uncachedIds));
+        }
+        return posts.stream()
+                .sorted(Comparator.comparing(post -> positions.get(post.getPostId())))
+                .collect(Collectors.toList());
+    }
+    
+    // The post with its Content and media list if the second-level cache holds all three, otherwise null
+    private Post findFullyCached(Long postId) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        if (!cache.containsEntity(Post.class, postId)) {
+            return null;
+        }
+        Post post = entityManager.find(Post.class, postId);
+        if (post == null || post.getContent() == null || post.isDeleted()) {
+            return null;
+        }
+        Object contentId = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(post.getContent());
+        boolean cached = cache.containsEntity(Content.class, contentId)
+                && cache.containsCollection(MEDIA_FILES_ROLE, contentId);
+        return cached ? post : null;
+    }
+    
     // Get a post by ID
+    @Transactional(readOnly = true)
     public PostResponseDTO getPostById(Long id) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
+        Post post = findFullyCached(id);
+        if (post == null) {
+            post = postRepository.findWithContentByPostId(id)
+                    .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
+        }
         return convertToDTO(post);
     }
     
+    // Get posts by IDs in the given order, skipping ids that don't exist
+    @Transactional(readOnly = true)
+    public List<PostResponseDTO> getPostsByIds(List<Long> ids) {
+        return loadPostsInOrder(ids).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    // Validators of a single post for conditional GET
+    @Transactional(readOnly = true)
+    public ResourceVersion getPostVersion(Long id) {
+        PostVersionView version = postRepository.findVersionByPostId(id)
+                .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
+        return ResourceVersion.forPost(version.getPostId(), version.getCreatedAtTimestamp(), version.getUpdatedAtTimestamp());
+    }
+    
+    // Validators of a timeline page (global when userId is null) for conditional GET
+    @Transactional(readOnly = true)
+    public ResourceVersion getTimelineVersion(Long userId, String page) {
+        TimelineVersionView version = userId == null
+                ? postRepository.findTimelineVersion()
+                : postRepository.findUserTimelineVersion(userId);
+        long postCount = userId == null ? postCounterService.getTotalPosts() : postCounterService.getUserPostCount(userId);
+        return ResourceVersion.forTimeline((userId == null ? "all" : "user:" + userId) + "|" + page,
+                version.getNewestPostId(), version.getNewestCreatedAt(), version.getLatestUpdatedAt(), postCount);
+    }
+    
     // Get all posts (timeline - newest first) with pagination
+    @Transactional(readOnly = true)
     public PaginatedPostResponseDTO getAllPosts(int page, int size) {
+        return getAllPosts(page, size, true);
+    }
+    
+    // Same, optionally without totalElements/totalPages (slice semantics: hasNext only)
+    @Transactional(readOnly = true)
+    public PaginatedPostResponseDTO getAllPosts(int page, int size, boolean withTotals) {
         // Ensure size doesn't exceed 10
         int pageSize = Math.min(size, 10);
         // Ensure page is at least 0
         int pageNumber = Math.max(page, 0);
         
         Pageable pageable = PageRequest.of(pageNumber, pageSize);
-        Page<Post> postPage = postRepository.findAllOrderByCreatedAtTimestampDesc(pageable);
+        Slice<Long> postSlice = postRepository.findTimelinePostIds(pageable);
         
-        List<PostResponseDTO> postDTOs = postPage.getContent().stream()
+        List<PostResponseDTO> postDTOs = loadPostsInOrder(postSlice.getContent()).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
         
-        return createPaginatedResponse(postDTOs, postPage);
+        return createPaginatedResponse(postDTOs, postSlice, withTotals ? postCounterService.getTotalPosts() : null);
     }
     
     // Get posts by user ID with pagination
+    @Transactional(readOnly = true)
     public PaginatedPostResponseDTO getPostsByUserId(Long userId, int page, int size) {
+        return getPostsByUserId(userId, page, size, true);
+    }
+    
+    // Same, optionally without totalElements/totalPages (slice semantics: hasNext only)
+    @Transactional(readOnly = true)
+    public PaginatedPostResponseDTO getPostsByUserId(Long userId, int page, int size, boolean withTotals) {
         // Ensure size doesn't exceed 10
         int pageSize = Math.min(size, 10);
         // Ensure page is at least 0
         int pageNumber = Math.max(page, 0);
         
         Pageable pageable = PageRequest.of(pageNumber, pageSize);
-        Page<Post> postPage = postRepository.findByUserIdOrderByCreatedAtTimestampDesc(userId, pageable);
+        Slice<Long> postSlice = postRepository.findUserTimelinePostIds(userId, pageable);
+        
+        List<PostResponseDTO> postDTOs = loadPostsInOrder(postSlice.getContent()).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        
+        return createPaginatedResponse(postDTOs, postSlice, withTotals ? postCounterService.getUserPostCount(userId) : null);
+    }
+    
+    // Get all posts (timeline - newest first) with keyset pagination; cursor is null for the first page
+    @Transactional(readOnly = true)
+    public PaginatedPostResponseDTO getAllPostsByCursor(String cursor, int size) {
+        int pageSize = clampCursorPageSize(size);
+        // Fetch one extra row to learn whether there is a next page without counting
+        Limit limit = Limit.of(pageSize + 1);
+        
+        List<Long> postIds;
+        if (cursor == null || cursor.isEmpty()) {
+            postIds = postRepository.findTimelineFirstPageIds(limit);
+        } else {
+            PostCursor after = PostCursor.decode(cursor);
+            postIds = postRepository.findTimelinePageIdsAfter(after.getCreatedAtTimestamp(), after.getPostId(), limit);
+        }
+        
+        return createCursorResponse(postIds, pageSize, cursor);
+    }
+    
+    // Get posts by user ID with keyset pagination; cursor is null for the first page
+    @Transactional(readOnly = true)
+    public PaginatedPostResponseDTO getPostsByUserIdByCursor(Long userId, String cursor, int size) {
+        int pageSize = clampCursorPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        
+        List<Long> postIds;
+        if (cursor == null || cursor.isEmpty()) {
+            postIds = postRepository.findUserTimelineFirstPageIds(userId, limit);
+        } else {
+            PostCursor after = PostCursor.decode(cursor);
+            postIds = postRepository.findUserTimelinePageIdsAfter(userId, after.getCreatedAtTimestamp(), after.getPostId(), limit);
+        }
+        
+        return createCursorResponse(postIds, pageSize, cursor);
+    }
+    
+    private int clampCursorPageSize(int size) {
+        // Same cap as offset mode, but never below one row
+        return Math.max(Math.min(size, 10), 1);
+    }
+    
+    // Helper method to create a keyset response from pageSize + 1 rows
+    private PaginatedPostResponseDTO createCursorResponse(List<Long> postIds, int pageSize, String cursor) {
+        boolean hasNext = postIds.size() > pageSize;
+        List<Post> pagePosts = loadPostsInOrder(hasNext ? postIds.subList(0, pageSize) : postIds);
         
-        List<PostResponseDTO> postDTOs = postPage.getContent().stream()
+        PaginatedPostResponseDTO response = new PaginatedPostResponseDTO();
+        response.setPosts(pagePosts.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()));
+        response.setPageSize(pageSize);
+        response.setHasNext(hasNext);
+        response.setHasPrevious(cursor != null && !cursor.isEmpty());
+        if (hasNext) {
+            Post last = pagePosts.get(pagePosts.size() - 1);
+            response.setNextCursor(new PostCursor(last.getCreatedAtTimestamp(), last.getPostId()).encode());
+        }
+        return response;
+    }
+    
+    // Rebuild the in-memory head of the global timeline from the repository.
+    // Deliberately not read-only: it must not be rebuilt from a replica that may lag behind the events.
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshTimelineHead() {
+        long version = timelineHeadBuffer.getVersion();
+        List<Long> newestIds = postRepository.findTimelineFirstPageIds(Limit.of(timelineHeadBuffer.getCapacity()));
+        List<PostResponseDTO> newest = loadPostsInOrder(newestIds).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        // If a write committed meanwhile, keep the event-fed state and let the next refill retry
+        timelineHeadBuffer.reset(newest, postCounterService.getTotalPosts(), version);
+    }
+    
+    // Write posts (with Content and Media) as newline-delimited JSON, one post per line, in postId order.
+    // Memory stays flat: rows come from a forward-only cursor and the persistence context is cleared per chunk.
+    @Transactional(readOnly = true)
+    public long exportPosts(OutputStream out, Long userId, LocalDateTime from, LocalDateTime to) throws IOException {
+        long exported = 0;
+        try (Stream<Post> posts = postRepository.streamForExport(userId, from, to)) {
+            Iterator<Post> iterator = posts.iterator();
+            List<Post> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    writeExportChunk(out, chunk);
+                    exported += chunk.size();
+                    chunk.clear();
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        return exported;
+    }
+    
+    private void writeExportChunk(OutputStream out, List<Post> chunk) throws IOException {
+        List<Long> contentIds = chunk.stream()
+                .map(post -> post.getContent().getContentId())
+                .collect(Collectors.toList());
+        Map<Long, List<Media>> mediaByContentId = mediaRepository.findByContentIdIn(contentIds).stream()
+                .collect(Collectors.groupingBy(media -> media.getContent().getContentId()));
         
-        return createPaginatedResponse(postDTOs, postPage);
+        for (Post post : chunk) {
+            List<Media> mediaFiles = mediaByContentId.getOrDefault(post.getContent().getContentId(), List.of());
+            out.write(objectMapper.writeValueAsBytes(convertToDTO(post, mediaFiles)));
+            out.write('\n');
+        }
     }
     
-    // Helper method to create paginated response
-    private PaginatedPostResponseDTO createPaginatedResponse(List<PostResponseDTO> posts, Page<Post> postPage) {
+    // Helper method to create paginated response; totals come from the maintained counters and are left null when not wanted
+    private PaginatedPostResponseDTO createPaginatedResponse(List<PostResponseDTO> posts, Slice<Long> postSlice, Long total) {
         PaginatedPostResponseDTO response = new PaginatedPostResponseDTO();
         response.setPosts(posts);
-        response.setCurrentPage(postPage.getNumber());
-        response.setPageSize(postPage.getSize());
-        response.setTotalElements(postPage.getTotalElements());
-        response.setTotalPages(postPage.getTotalPages());
-        response.setHasNext(postPage.hasNext());
-        response.setHasPrevious(postPage.hasPrevious());
+        response.setCurrentPage(postSlice.getNumber());
+        response.setPageSize(postSlice.getSize());
+        if (total != null) {
+            response.setTotalElements(total);
+            response.setTotalPages((int) Math.ceil((double) total / postSlice.getSize()));
+        }
+        response.setHasNext(postSlice.hasNext());
+        response.setHasPrevious(postSlice.hasPrevious());
         return response;
     }
     
     // Create a new post
     public PostResponseDTO createPost(PostRequestDTO postRequestDTO) {
-        // Verify user exists
-        userRepository.findById(postRequestDTO.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + postRequestDTO.getUserId()));
-        
+        // Same rules as createPostsBatch, so group commit doesn't change which posts are accepted
+        Long userId = postRequestDTO != null ? postRequestDTO.getUserId() : null;
+        Set<Long> existingUserIds = userId != null && userRepository.findById(userId).isPresent() ? Set.of(userId) : Set.of();
+        String error = validateForCreate(postRequestDTO, existingUserIds);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+
         Post post = convertToEntity(postRequestDTO);
         Post savedPost = postRepository.save(post);
-        return convertToDTO(savedPost);
+        postCounterService.addPosts(savedPost.getUserId(), 1);
+        PostResponseDTO created = convertToDTO(savedPost);
+        eventPublisher.publishEvent(new PostChangedEvent(PostChangedEvent.Type.CREATED, created.getPostId(), created.getUserId(), created));
+        return created;
     }
     
-    // Update a post
+    // Create many posts in one transaction, inserted in JDBC batches
+    public BatchPostResponseDTO createPostsBatch(List<PostRequestDTO> postRequestDTOs) {
+        return createPostsBatch(postRequestDTOs, null);
+    }
+    
+    // Same, but each post keeps the createdAtTimestamp/updatedAtTimestamp of the matching element of timestamps
+    // (null, or null timestamps, for the current time): restoring an export must not move its posts to the top
+    public BatchPostResponseDTO createPostsBatch(List<PostRequestDTO> postRequestDTOs, List<PostResponseDTO> timestamps) {
+        if (postRequestDTOs.size() > MAX_BATCH_POSTS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_POSTS + " posts per batch");
+        }
+        
+        // One existence check for all distinct users in the batch
+        Set<Long> userIds = postRequestDTOs.stream()
+                .filter(Objects::nonNull)
+                .map(PostRequestDTO::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingUserIds = userIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingUserIds(userIds));
+        
+        List<BatchPostResultDTO> results = new ArrayList<>(postRequestDTOs.size());
+        List<PostResponseDTO> created = new ArrayList<>();
+        int pending = 0;
+        for (int i = 0; i < postRequestDTOs.size(); i++) {
+            PostRequestDTO dto = postRequestDTOs.get(i);
+            String error = validateForCreate(dto, existingUserIds);
+            if (error != null) {
+                results.add(new BatchPostResultDTO(i, false, null, error));
+                continue;
+            }
+            
+            Post post = convertToEntity(dto);
+            if (timestamps != null && timestamps.get(i) != null) {
+                post.setCreatedAtTimestamp(truncate(timestamps.get(i).getCreatedAtTimestamp()));
+                post.setUpdatedAtTimestamp(truncate(timestamps.get(i).getUpdatedAtTimestamp()));
+            }
+            entityManager.persist(post);
+            PostResponseDTO createdPost = convertToDTO(post);
+            created.add(createdPost);
+            results.add(new BatchPostResultDTO(i, true, createdPost, null));
+            
+            // Send the queued inserts and drop managed entities so the persistence context stays small
+            if (++pending == batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        Map<Long, Long> createdByUser = created.stream()
+                .collect(Collectors.groupingBy(PostResponseDTO::getUserId, Collectors.counting()));
+        postCounterService.addPosts(createdByUser);
+        
+        for (PostResponseDTO createdPost : created) {
+            eventPublisher.publishEvent(new PostChangedEvent(PostChangedEvent.Type.CREATED, createdPost.getPostId(), createdPost.getUserId(), createdPost));
+        }
+        
+        return new BatchPostResponseDTO(postRequestDTOs.size(), created.size(), postRequestDTOs.size() - created.size(), results);
+    }
+    
+    private static LocalDateTime truncate(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.truncatedTo(ChronoUnit.MICROS) : null;
+    }
+    
+    private String validateForCreate(PostRequestDTO dto, Set<Long> existingUserIds) {
+        if (dto == null) {
+            return "Post is required";
+        }
+        if (dto.getUserId() == null) {
+            return "userId is required";
+        }
+        if (!existingUserIds.contains(dto.getUserId())) {
+            return "User not found with id: " + dto.getUserId();
+        }
+        if (dto.getContent() == null || dto.getContent().getTitle() == null || dto.getContent().getTitle().isBlank()) {
+            return "content.title is required";
+        }
+        return null;
+    }
+    
+    // Update a post (full update): title and description are replaced, media too when given
     public PostResponseDTO updatePost(Long id, PostRequestDTO postRequestDTO) {
-        Post existingPost = postRepository.findById(id)
+        return applyUpdate(id, postRequestDTO.getContent(), false);
+    }
+    
+    // Update a post (partial update): only non-null fields are applied
+    public PostResponseDTO patchPost(Long id, PostRequestDTO postRequestDTO) {
+        return applyUpdate(id, postRequestDTO.getContent(), true);
+    }
+    
+    // Apply the changes to the stored post. When nothing actually differs the post is returned as is:
+    // no write, no updatedAtTimestamp bump and no change event (so caches and ETags stay valid).
+    private PostResponseDTO applyUpdate(Long id, ContentDTO changes, boolean partial) {
+        Post existingPost = postRepository.findWithContentByPostId(id)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
+        if (changes == null) {
+            if (partial) {
+                return convertToDTO(existingPost);
+            }
+            throw new IllegalArgumentException("content is required");
+        }
         
         // Update content
         Content content = existingPost.getContent();
+        boolean changed = false;
         if (content == null) {
             content = new Content();
             existingPost.setContent(content);
-            content.setPost(existingPost);
+            changed = true;
         }
         
-        final Content finalContent = content; // Make effectively final for lambda
+        if ((!partial || changes.getTitle() != null) && !Objects.equals(changes.getTitle(), content.getTitle())) {
+            content.setTitle(changes.getTitle());
+            changed = true;
+        }
+        if ((!partial || changes.getDescription() != null) && !Objects.equals(changes.getDescription(), content.getDescription())) {
+            content.setDescription(changes.getDescription());
+            changed = true;
+        }
+        if (changes.getMediaFiles() != null) {
+            changed |= syncMediaFiles(content, changes.getMediaFiles());
+        }
         
-        finalContent.setTitle(postRequestDTO.getContent().getTitle());
-        finalContent.setDescription(postRequestDTO.getContent().getDescription());
+        if (!changed) {
+            return convertToDTO(existingPost);
+        }
         
-        // Update media files
-        if (postRequestDTO.getContent().getMediaFiles() != null) {
-            // Clear existing media
-            finalContent.getMediaFiles().clear();
-            
-            // Add new media
-            List<Media> mediaList = postRequestDTO.getContent().getMediaFiles().stream()
-                    .map(mediaDTO -> {
-                        Media media = new Media();
-                        media.setMediaUrl(mediaDTO.getMediaUrl());
-                        media.setMediaType(mediaDTO.getMediaType());
-                        media.setContent(finalContent);
-                        return media;
-                    })
-                    .collect(Collectors.toList());
-            finalContent.getMediaFiles().addAll(mediaList);
+        // Content/Media changes don't dirty the Post row itself, so bump its timestamp explicitly;
+        // conditional GET validators are derived from it
+        existingPost.setUpdatedAtTimestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        
+        // Flush so the returned DTO carries the ids of newly inserted media
+        Post updatedPost = postRepository.saveAndFlush(existingPost);
+        PostResponseDTO updated = convertToDTO(updatedPost);
+        eventPublisher.publishEvent(new PostChangedEvent(PostChangedEvent.Type.UPDATED, id, updated.getUserId(), updated));
+        return updated;
+    }
+    
+    // Make the content's media match the requested list, identified by (url, type): matching rows are kept untouched,
+    // unmatched existing rows are deleted (orphan removal) and unmatched requested ones inserted.
+    // Returns whether anything changed.
+    private boolean syncMediaFiles(Content content, List<MediaDTO> requested) {
+        Map<MediaKey, Deque<Media>> existingByKey = new HashMap<>();
+        for (Media media : content.getMediaFiles()) {
+            existingByKey.computeIfAbsent(new MediaKey(media.getMediaUrl(), media.getMediaType()), key -> new ArrayDeque<>())
+                    .add(media);
+        }
+        
+        List<Media> inserted = new ArrayList<>();
+        for (MediaDTO mediaDTO : requested) {
+            Deque<Media> matches = existingByKey.get(new MediaKey(mediaDTO.getMediaUrl(), mediaDTO.getMediaType()));
+            if (matches != null && !matches.isEmpty()) {
+                matches.poll();
+                continue;
+            }
+            Media media = new Media();
+            media.setMediaUrl(mediaDTO.getMediaUrl());
+            media.setMediaType(mediaDTO.getMediaType());
+            media.setContent(content);
+            inserted.add(media);
         }
         
-        Post updatedPost = postRepository.save(existingPost);
-        return convertToDTO(updatedPost);
+        // Whatever is left unmatched is no longer wanted; compared by identity, Media equality is field-based
+        Set<Media> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        existingByKey.values().forEach(removed::addAll);
+        if (inserted.isEmpty() && removed.isEmpty()) {
+            return false;
+        }
+        content.getMediaFiles().removeIf(removed::contains);
+        content.getMediaFiles().addAll(inserted);
+        return true;
     }
     
-    // Delete a post
+    private record MediaKey(String mediaUrl, String mediaType) {
+    }
+    
+    // Delete a post: a soft delete (one UPDATE through dirty checking), its rows are removed later by PostPurger.
+    // The row lock makes a concurrent delete of the same post wait and then find it gone, so only one counts it;
+    // the update replaces just this post's second-level cache entry, which readers skip once it is marked deleted.
     public void deletePost(Long id) {
-        if (!postRepository.existsById(id)) {
+        Post post = entityManager.find(Post.class, id, LockModeType.PESSIMISTIC_WRITE);
+        if (post == null) {
             throw new RuntimeException("Post not found with id: " + id);
         }
-        postRepository.deleteById(id);
+        post.setDeleted(true);
+        post.setDeletedAtTimestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        postCounterService.addPosts(post.getUserId(), -1);
+        eventPublisher.publishEvent(new PostChangedEvent(PostChangedEvent.Type.DELETED, id, post.getUserId(), null));
+    }
+    
+    // Delete all posts of a user (soft delete, one UPDATE per MAX_BATCH_POSTS posts); returns how many were deleted.
+    // The ids are locked first, so a concurrent single delete of one of them waits and then finds it gone,
+    // and every post is counted and announced exactly once.
+    public int deletePostsByUserId(Long userId) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        List<Long> postIds = postRepository.lockPostIdsByUserId(userId);
+        LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int deleted = 0;
+        for (int from = 0; from < postIds.size(); from += MAX_BATCH_POSTS) {
+            deleted += postRepository.softDeleteAll(postIds.subList(from, Math.min(from + MAX_BATCH_POSTS, postIds.size())), deletedAt);
+        }
+        if (deleted != postIds.size()) {
+            throw new IllegalStateException("Deleted " + deleted + " of " + postIds.size() + " locked posts of user " + userId);
+        }
+        if (deleted > 0) {
+            postCounterService.addPosts(userId, -deleted);
+            evictAfterCommit(postIds);
+        }
+        for (Long postId : postIds) {
+            eventPublisher.publishEvent(new PostChangedEvent(PostChangedEvent.Type.DELETED, postId, userId, null));
+        }
+        return deleted;
+    }
+    
+    // The native soft delete leaves the second-level cache alone: drop these posts and the cached timeline queries
+    // (which may list them) once it has committed, so readers can't cache the pre-delete state again meanwhile
+    private void evictAfterCommit(List<Long> postIds) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                postIds.forEach(postId -> cache.evictEntityData(Post.class, postId));
+                cache.evictQueryRegion(TIMELINE_QUERIES_REGION);
+            }
+        });
+    }
+    
+    // Hard-delete up to limit posts soft-deleted before deletedBefore, oldest first, with their Content and Media, in
+    // three set-based statements; returns how many posts were purged. Called by PostPurger, one short transaction per batch.
+    public int purgeDeletedPosts(LocalDateTime deletedBefore, int limit) {
+        List<TombstoneView> tombstones = postRepository.findTombstones(deletedBefore, limit);
+        if (tombstones.isEmpty()) {
+            return 0;
+        }
+        List<Long> postIds = tombstones.stream().map(TombstoneView::getPostId).collect(Collectors.toList());
+        List<Long> contentIds = tombstones.stream().map(TombstoneView::getContentId).collect(Collectors.toList());
+        // Children first: media and posts both reference content
+        mediaRepository.purgeByContentIdIn(contentIds);
+        int purged = postRepository.purgePosts(postIds);
+        postRepository.purgeContents(contentIds);
+        
+        // The statements leave the second-level cache alone (see PostRepository.purgePosts); drop what it may
+        // still hold of these posts by id. Cached Media rows are unreachable without their list and expire.
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        for (TombstoneView tombstone : tombstones) {
+            cache.evictEntityData(Post.class, tombstone.getPostId());
+            cache.evictEntityData(Content.class, tombstone.getContentId());
+            cache.evictCollectionData(MEDIA_FILES_ROLE, tombstone.getContentId());
+        }
+        return purged;
     }
 }
 
@@ -0,0 +1,62 @@
+package com.testExample.demo.services;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+
+// Validators for conditional GET: a strong ETag and the Last-Modified time (-1 when unknown)
+@Value
+public class ResourceVersion {
+    String etag;
+    long lastModifiedMillis;
+
+    // A post changes representation exactly when its updatedAtTimestamp (or, before any update, createdAtTimestamp) changes
+    public static ResourceVersion forPost(Long postId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        LocalDateTime modified = updatedAt != null ? updatedAt : createdAt;
+        return new ResourceVersion(
+                "\"" + postId + "-" + Long.toHexString(toEpochMicros(modified)) + "\"",
+                toEpochMillis(modified));
+    }
+
+    // A timeline page is identified by its scope and paging parameters, and changes with the timeline's aggregate state
+    public static ResourceVersion forTimeline(String page, Long newestPostId, LocalDateTime newestCreatedAt,
+                                              LocalDateTime latestUpdatedAt, long postCount) {
+        String state = page + "|" + newestPostId + "|" + newestCreatedAt + "|" + latestUpdatedAt + "|" + postCount;
+        LocalDateTime modified = latestUpdatedAt != null && (newestCreatedAt == null || latestUpdatedAt.isAfter(newestCreatedAt))
+                ? latestUpdatedAt
+                : newestCreatedAt;
+        return new ResourceVersion("\"t-" + sha256Prefix(state) + "\"", modified != null ? toEpochMillis(modified) : -1);
+    }
+
+    // A timeline page served from the in-memory timeline head: its state is the buffer's change count, which moves on
+    // every committed create, update and delete. The instance id keeps two processes' counts from matching, and the page
+    // digest two pages' tags.
+    public static ResourceVersion forTimelineHead(String page, String instance, long changeCount, long postCount,
+                                                  long lastModifiedMillis) {
+        return new ResourceVersion("\"h-" + instance + "-" + Long.toHexString(changeCount) + "-" + Long.toHexString(postCount)
+                + "-" + sha256Prefix(page) + "\"", lastModifiedMillis);
+    }
+
+    private static long toEpochMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String sha256Prefix(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.testExample.demo.services;
 
+import com.testExample.demo.config.RecentWriteTracker;
 import com.testExample.demo.dto.UserRequestDTO;
 import com.testExample.demo.entities.User;
 import com.testExample.demo.repositories.UserRepository;
@@ -14,13 +15,19 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private RecentWriteTracker recentWriteTracker;
+    
     public User createUser(UserRequestDTO userRequestDTO) {
         User user = new User();
         user.setUsername(userRequestDTO.getUsername());
         user.setEmail(userRequestDTO.getEmail());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        recentWriteTracker.recordUserWrite(saved.getUserId());
+        return saved;
     }
     
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
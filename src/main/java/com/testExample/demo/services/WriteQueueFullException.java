@@ -0,0 +1,10 @@
+package com.testExample.demo.services;
+
+// Thrown when the group-commit queue has no room, is shutting down or doesn't commit a post in time; the caller should
+// back off and retry
+public class WriteQueueFullException extends RuntimeException {
+
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
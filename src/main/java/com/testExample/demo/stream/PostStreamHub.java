@@ -0,0 +1,337 @@
+package com.testExample.demo.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.services.PostChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fan-out of post changes to Server-Sent Events subscribers (GET /posts/stream), for the global timeline or one user.
+// Every change is turned into a complete SSE frame once, and the same bytes are queued to every matching subscriber.
+// Idle subscribers are just an async servlet response and an empty queue: no thread is held between events.
+// A subscriber's queue is drained by a virtual thread started only while it has frames to write; a subscriber more
+// than posts.stream.buffer-size frames behind is disconnected and can resume with Last-Event-ID.
+// The last posts.stream.replay-size frames are kept for that resume; a client further behind, or missing more frames
+// than its buffer holds, gets a "reset" event and should reload the timeline.
+// Open streams are closed as the first step of shutdown: graceful shutdown would otherwise wait for them to end.
+@Slf4j
+@Component
+public class PostStreamHub implements MeterBinder, SmartLifecycle {
+
+    private static final MediaType EVENT_STREAM = MediaType.TEXT_EVENT_STREAM;
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.US_ASCII);
+    // First frame of every stream: commits the response headers and sets the client's reconnect delay
+    private static final byte[] OPEN = "retry: 3000\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RESET = "event: reset\ndata: {}\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int bufferSize;
+
+    private final Set<Subscriber> globalSubscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> userSubscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Replay window, guarded by lock; subscribing and publishing both take it so a subscriber sees every event once
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Frame[] replay;
+    private int replayHead;
+    private int replaySize;
+    private long lastEventId;
+
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running;
+
+    public PostStreamHub(ObjectMapper objectMapper,
+                         @Value("${posts.stream.timeout-ms:1800000}") long timeoutMillis,
+                         @Value("${posts.stream.buffer-size:256}") int bufferSize,
+                         @Value("${posts.stream.replay-size:1000}") int replaySize,
+                         @Value("${posts.stream.heartbeat-seconds:20}") int heartbeatSeconds) {
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.replay = new Frame[Math.max(replaySize, 1)];
+        // Comment lines keep proxies from closing idle streams and reveal connections that went away
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    // Open a stream of all post changes (userId null) or those of one user, resuming after lastEventId if given
+    public ResponseBodyEmitter subscribe(Long userId, Long lastEventId) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, userId);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        lock.lock();
+        try {
+            subscriber.offer(OPEN);
+            if (lastEventId != null) {
+                queueReplay(subscriber, lastEventId);
+            }
+            if (userId == null) {
+                globalSubscribers.add(subscriber);
+            } else {
+                userSubscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            }
+            subscriberCount.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    // Frames after lastEventId for this subscriber, or a reset when some of them already left the window or there
+    // are too many to queue
+    private void queueReplay(Subscriber subscriber, long lastEventId) {
+        if (lastEventId == this.lastEventId) {
+            return;
+        }
+        long oldestId = replaySize == 0 ? this.lastEventId + 1 : replay[(replayHead - replaySize + replay.length) % replay.length].id;
+        // An id from before a restart (ids start over) or older than the window can't be resumed exactly
+        if (lastEventId > this.lastEventId || lastEventId < oldestId - 1) {
+            subscriber.offer(RESET);
+            return;
+        }
+        List<byte[]> missed = new ArrayList<>();
+        for (int i = replaySize; i > 0; i--) {
+            Frame frame = replay[(replayHead - i + replay.length) % replay.length];
+            if (frame.id > lastEventId && (subscriber.userId == null || subscriber.userId.equals(frame.userId))) {
+                missed.add(frame.bytes);
+            }
+        }
+        // A gap the subscriber's buffer can't hold (next to the open frame) would just get it dropped again as too
+        // slow, and the client would reconnect into the same gap forever
+        if (missed.size() >= bufferSize) {
+            subscriber.offer(RESET);
+            return;
+        }
+        missed.forEach(subscriber::offer);
+    }
+
+    // After commit, so subscribers never see a change that was rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        PostResponseDTO post = event.getPost();
+        if (post == null) {
+            post = new PostResponseDTO();
+            post.setPostId(event.getPostId());
+            post.setUserId(event.getUserId());
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(post);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize post {} for the stream", event.getPostId(), e);
+            return;
+        }
+
+        lock.lock();
+        try {
+            Frame frame = new Frame(++lastEventId, event.getUserId(), frame(lastEventId, event.getType(), json));
+            replay[replayHead] = frame;
+            replayHead = (replayHead + 1) % replay.length;
+            replaySize = Math.min(replaySize + 1, replay.length);
+            events.increment();
+
+            for (Subscriber subscriber : globalSubscribers) {
+                subscriber.offer(frame.bytes);
+            }
+            Set<Subscriber> forUser = event.getUserId() != null ? userSubscribers.get(event.getUserId()) : null;
+            if (forUser != null) {
+                for (Subscriber subscriber : forUser) {
+                    subscriber.offer(frame.bytes);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] frame(long id, PostChangedEvent.Type type, byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length + 48);
+        out.writeBytes(("id: " + id + "\nevent: " + type.name().toLowerCase() + "\ndata: ").getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(json);
+        out.writeBytes(new byte[]{'\n', '\n'});
+        return out.toByteArray();
+    }
+
+    private void sendHeartbeat() {
+        for (Subscriber subscriber : globalSubscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+        for (Set<Subscriber> subscribers : userSubscribers.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (subscriber.userId == null) {
+            globalSubscribers.remove(subscriber);
+        } else {
+            userSubscribers.computeIfPresent(subscriber.userId, (id, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        subscriberCount.decrementAndGet();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        heartbeat.shutdownNow();
+        List<Subscriber> all = new ArrayList<>(globalSubscribers);
+        userSubscribers.values().forEach(all::addAll);
+        for (Subscriber subscriber : all) {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }
+        writers.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop before the web server's graceful shutdown (phase Integer.MAX_VALUE - 1024) starts waiting for requests
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long getEvents() {
+        return events.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("posts.stream.subscribers", this, PostStreamHub::getSubscriberCount)
+                .description("Open /posts/stream connections").register(registry);
+        FunctionCounter.builder("posts.stream.events", this, PostStreamHub::getEvents)
+                .description("Post changes published to the stream").register(registry);
+        FunctionCounter.builder("posts.stream.dropped", this, PostStreamHub::getDropped)
+                .description("Subscribers disconnected for falling too far behind").register(registry);
+    }
+
+    private record Frame(long id, Long userId, byte[] bytes) {
+    }
+
+    private final class Subscriber {
+        private final ResponseBodyEmitter emitter;
+        private final Long userId;
+        private final ConcurrentLinkedQueue<byte[]> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(ResponseBodyEmitter emitter, Long userId) {
+            this.emitter = emitter;
+            this.userId = userId;
+        }
+
+        void offer(byte[] frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > bufferSize) {
+                // Too slow: drop it rather than let its backlog grow; the client reconnects with Last-Event-ID
+                dropped.increment();
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            pending.add(frame);
+            if (writing.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        // Write everything queued in one flush; loop again if frames arrived after the queue looked empty
+        private void drain() {
+            do {
+                try {
+                    writePending();
+                } finally {
+                    writing.set(false);
+                }
+            } while (!pending.isEmpty() && writing.compareAndSet(false, true));
+        }
+
+        private void writePending() {
+            Set<ResponseBodyEmitter.DataWithMediaType> batch = new LinkedHashSet<>();
+            byte[] frame;
+            while ((frame = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                batch.add(new ResponseBodyEmitter.DataWithMediaType(frame, EVENT_STREAM));
+            }
+            if (batch.isEmpty() || closed.get()) {
+                return;
+            }
+            try {
+                emitter.send(batch);
+            } catch (IOException | RuntimeException e) {
+                // Client went away; onError/onCompletion may not fire for a write from outside the request
+                log.warn("Stream write failed", e);
+                remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+-- Schema as Hibernate maps it (see the entities); the prod profile validates against it instead of generating it.
+-- Sequences allocate ids in blocks of 50 to match the @SequenceGenerator allocation size used for JDBC batching.
+create sequence content_seq start with 1 increment by 50;
+create sequence media_seq start with 1 increment by 50;
+create sequence posts_seq start with 1 increment by 50;
+
+create table users (
+    user_id bigint generated by default as identity,
+    email varchar(255) not null,
+    username varchar(255) not null,
+    primary key (user_id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username)
+);
+
+create table content (
+    content_id bigint not null,
+    description varchar(2000),
+    title varchar(255) not null,
+    primary key (content_id)
+);
+
+create table media (
+    media_id bigint not null,
+    content_id bigint not null,
+    media_type varchar(255),
+    media_url varchar(255) not null,
+    primary key (media_id),
+    constraint fk_media_content foreign key (content_id) references content
+);
+
+create table posts (
+    post_id bigint not null,
+    content_id bigint not null,
+    user_id bigint not null,
+    created_at_timestamp timestamp(6) not null,
+    updated_at_timestamp timestamp(6),
+    primary key (post_id),
+    constraint uk_posts_content unique (content_id),
+    constraint fk_posts_content foreign key (content_id) references content,
+    constraint fk_posts_user foreign key (user_id) references users
+);
+
+create table post_counters (
+    counter_key varchar(64) not null,
+    post_count bigint not null,
+    primary key (counter_key)
+);
@@ -0,0 +1,9 @@
+-- Indexes for the timeline queries and validators, and for a post's media (fk_media_content re-created to use it)
+alter table media drop constraint fk_media_content;
+
+create index idx_posts_timeline on posts (created_at_timestamp desc, post_id desc);
+create index idx_posts_user_timeline on posts (user_id, created_at_timestamp desc, post_id desc);
+create index idx_posts_updated on posts (updated_at_timestamp);
+create index idx_media_content on media (content_id);
+
+alter table media add constraint fk_media_content foreign key (content_id) references content;
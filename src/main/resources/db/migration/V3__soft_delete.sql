@@ -0,0 +1,9 @@
+-- Soft delete: deleted flag and time, timeline indexes ending with the flag, idx_posts_deleted for PostPurger
+alter table posts add column deleted boolean default false not null;
+alter table posts add column deleted_at_timestamp timestamp(6);
+
+drop index idx_posts_timeline;
+drop index idx_posts_user_timeline;
+create index idx_posts_timeline on posts (created_at_timestamp desc, post_id desc, deleted);
+create index idx_posts_user_timeline on posts (user_id, created_at_timestamp desc, post_id desc, deleted);
+create index idx_posts_deleted on posts (deleted_at_timestamp desc);
@@ -0,0 +1,4 @@
+-- idx_posts_deleted ascending, as Post declares it, so PostPurger reads the oldest tombstones first
+drop index idx_posts_deleted;
+
+create index idx_posts_deleted on posts (deleted_at_timestamp);
@@ -0,0 +1,116 @@
+package com.testExample.demo.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Time from JVM launch to the first successful GET /posts, for the extracted application jar started as:
+// default configuration, prod profile, prod + AOT, and prod + AOT + CDS archive. Each variant is started
+// --runs times in a fresh process; the minimum and median are printed. Run through the build:
+//   mvn -Pfaststart verify [-Dstartup.runs=10]
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private record Variant(String name, List<String> jvmArgs) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = null;
+        Path archive = null;
+        int runs = 5;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--jar" -> jar = Path.of(args[++i]);
+                case "--cds" -> archive = Path.of(args[++i]);
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Unknown option " + args[i] + " (expected --jar, --cds, --runs)");
+                    System.exit(2);
+                }
+            }
+        }
+        if (jar == null || !Files.exists(jar)) {
+            System.err.println("--jar must point to the extracted application jar, got " + jar);
+            System.exit(2);
+        }
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("default", List.of()));
+        variants.add(new Variant("prod", List.of("-Dspring.profiles.active=prod")));
+        variants.add(new Variant("prod+aot", List.of("-Dspring.profiles.active=prod", "-Dspring.aot.enabled=true")));
+        if (archive != null && Files.exists(archive)) {
+            variants.add(new Variant("prod+aot+cds", List.of("-Dspring.profiles.active=prod", "-Dspring.aot.enabled=true",
+                    "-XX:SharedArchiveFile=" + archive)));
+        }
+
+        System.out.printf("Time to first GET /posts (ms), %d runs each%n", runs);
+        System.out.println("Variant          min   median");
+        for (Variant variant : variants) {
+            long[] millis = new long[runs];
+            for (int r = 0; r < runs; r++) {
+                millis[r] = timeToFirstRequest(jar, variant);
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-14s %5d %8d%n", variant.name(), millis[0], millis[runs / 2]);
+        }
+        System.exit(0);
+    }
+
+    private static long timeToFirstRequest(Path jar, Variant variant) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(variant.jvmArgs());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/posts")).GET().build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(jar.getParent().toFile(), "startup-" + variant.name() + ".log")))
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " exited with " + process.exitValue()
+                            + ", see startup-" + variant.name() + ".log");
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(variant.name() + " did not answer GET /posts within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.testExample.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Boots the prod profile: the Flyway migrations must produce exactly the schema the entities map (ddl-auto=validate)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prodprofile")
+@ActiveProfiles("prod")
+@AutoConfigureMockMvc
+class ProdProfileTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void startsOnMigratedSchemaAndServesRequests() throws Exception {
+        mockMvc.perform(post("/users/create")
+                        .contentType("application/json")
+                        .content("{\"username\":\"prod\",\"email\":\"prod@example.com\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/posts/create")
+                        .contentType("application/json")
+                        .content("{\"userId\":1,\"content\":{\"title\":\"t\",\"mediaFiles\":[{\"mediaUrl\":\"u\",\"mediaType\":\"image\"}]}}"))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/posts")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,123 @@
+package com.testExample.demo.benchmarks;
+
+import com.testExample.demo.DemoApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Overload against a slow database (a small pool and per-statement latency), with load shedding off and on.
+// Without it every request queues for a connection and latency grows with the number of clients; with it the
+// excess is answered with 503 + Retry-After at once and the admitted requests keep a bounded latency.
+// Run with: mvn test -Dbenchmarks=true -Dtest=AdmissionControlBenchmarkTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class AdmissionControlBenchmarkTest {
+
+    private static final int CLIENTS = 64;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int JDBC_LATENCY_MS = 10;
+
+    @Test
+    void sheddingKeepsAdmittedLatencyBounded() throws Exception {
+        Result off = run(false);
+        Result on = run(true);
+
+        System.out.println("Shedding   ok/s     p50 ms   p99 ms   503s  limit");
+        System.out.println(off.format("off"));
+        System.out.println(on.format("on"));
+        assertThat(off.shed).isZero();
+        assertThat(on.shed).isPositive();
+        assertThat(on.rejectedMetric).isEqualTo(on.shed);
+    }
+
+    private Result run(boolean shedding) throws Exception {
+        // Command-line arguments, not builder properties: those are defaults that application.properties overrides
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class, SlowJdbcConfig.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:admissionbench" + shedding,
+                        "--spring.datasource.hikari.maximum-pool-size=4",
+                        // Every GET /users/{id} goes to the database
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--posts.admission.enabled=" + shedding,
+                        "--posts.admission.read.initial-limit=8",
+                        "--test.jdbc.latency-ms=" + JDBC_LATENCY_MS)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            client.send(HttpRequest.newBuilder(URI.create(base + "/users/create"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"shed\",\"email\":\"shed@example.com\"}")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            AtomicInteger ok = new AtomicInteger();
+            AtomicInteger shed = new AtomicInteger();
+            long start = System.nanoTime();
+            // Platform threads: virtual clients can pin the only carrier on a single-CPU machine
+            try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    futures.add(clients.submit(() -> {
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            long sent = System.nanoTime();
+                            HttpResponse<String> response = client.send(
+                                    HttpRequest.newBuilder(URI.create(base + "/users/1")).GET().build(),
+                                    HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() == 200) {
+                                latencies[ok.getAndIncrement()] = System.nanoTime() - sent;
+                            } else if (response.statusCode() == 503
+                                    && response.headers().firstValue("Retry-After").isPresent()) {
+                                shed.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long[] admitted = Arrays.copyOf(latencies, ok.get());
+            Arrays.sort(admitted);
+
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            var rejected = registry.find("posts.admission.rejected").tag("kind", "read").functionCounter();
+            var limit = registry.find("posts.admission.limit").tag("kind", "read").gauge();
+            return new Result(ok.get() / seconds, admitted, shed.get(),
+                    rejected == null ? 0 : (int) rejected.count(), limit == null ? 0 : (int) limit.value());
+        }
+    }
+
+    private record Result(double throughput, long[] sortedLatencies, int shed, int rejectedMetric, int limit) {
+        String format(String mode) {
+            return String.format("%-8s %7.0f %9.1f %8.1f %6d %6d", mode, throughput,
+                    percentile(0.50), percentile(0.99), shed, limit);
+        }
+
+        double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, Math.ceil(p * sortedLatencies.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.testExample.demo.benchmarks;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.MediaDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import com.testExample.demo.services.PostService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Posts/sec of POST /posts/batch versus one createPost call per post.
+// Run with: mvn test -Dbenchmarks=true -Dtest=BatchIngestBenchmarkTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchbench",
+        "spring.jpa.show-sql=false"
+})
+class BatchIngestBenchmarkTest {
+
+    private static final int POSTS = 5000;
+    private static final int MEDIA_PER_POST = 2;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        User user = new User();
+        user.setUsername("bench-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        userId = userRepository.save(user).getUserId();
+    }
+
+    @Test
+    void batchVersusSinglePostIngestion() {
+        List<PostRequestDTO> requests = requests(POSTS);
+
+        // Warm up both paths so JIT and connection pool are not part of the measurement
+        requests(200).forEach(postService::createPost);
+        postService.createPostsBatch(requests(200));
+
+        long start = System.nanoTime();
+        for (PostRequestDTO request : requests) {
+            postService.createPost(request);
+        }
+        double singlePerSecond = POSTS / seconds(start);
+
+        start = System.nanoTime();
+        int created = 0;
+        for (int from = 0; from < POSTS; from += PostService.MAX_BATCH_POSTS) {
+            List<PostRequestDTO> chunk = requests.subList(from, Math.min(from + PostService.MAX_BATCH_POSTS, POSTS));
+            created += postService.createPostsBatch(chunk).getSucceeded();
+        }
+        double batchPerSecond = POSTS / seconds(start);
+
+        System.out.printf("Single-post path: %,.0f posts/sec%n", singlePerSecond);
+        System.out.printf("Batch path:       %,.0f posts/sec (%.1fx)%n", batchPerSecond, batchPerSecond / singlePerSecond);
+        assertThat(created).isEqualTo(POSTS);
+    }
+
+    private List<PostRequestDTO> requests(int count) {
+        List<PostRequestDTO> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ContentDTO content = new ContentDTO();
+            content.setTitle("Benchmark post " + i);
+            content.setDescription("Generated by BatchIngestBenchmarkTest");
+            for (int m = 0; m < MEDIA_PER_POST; m++) {
+                content.getMediaFiles().add(new MediaDTO(null, "https://cdn.example.com/bench/" + i + "/" + m, "image"));
+            }
+            requests.add(new PostRequestDTO(userId, content));
+        }
+        return requests;
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.testExample.demo.benchmarks;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import com.testExample.demo.services.GroupCommitPostWriter;
+import com.testExample.demo.services.PostService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sustained posts/sec of concurrent single-post creates: a transaction per post versus group commit.
+// Every commit costs test.jdbc.commit-latency-ms, as a log fsync would.
+// Run with: mvn test -Dbenchmarks=true -Dtest=GroupCommitBenchmarkTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest(classes = {com.testExample.demo.DemoApplication.class, SlowJdbcConfig.class}, properties = {
+        "spring.datasource.url=jdbc:h2:mem:groupcommitbench",
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "posts.write.group-commit.enabled=true",
+        "test.jdbc.commit-latency-ms=5"
+})
+class GroupCommitBenchmarkTest {
+
+    private static final int CLIENTS = 64;
+    private static final int POSTS_PER_CLIENT = 40;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private GroupCommitPostWriter groupCommitPostWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void transactionPerPostVersusGroupCommit() throws Exception {
+        // One user per client, so the transaction-per-post path isn't serialized on a single user's counter row
+        List<Long> userIds = new ArrayList<>(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            User user = new User();
+            user.setUsername("groupcommit-" + c + "-" + System.nanoTime());
+            user.setEmail(user.getUsername() + "@example.com");
+            userIds.add(userRepository.save(user).getUserId());
+        }
+
+        // Warm up both paths
+        run(userIds, postService::createPost);
+        run(userIds, dto -> groupCommitPostWriter.createPost(dto));
+
+        double singlePerSecond = run(userIds, postService::createPost);
+        double groupPerSecond = run(userIds, dto -> groupCommitPostWriter.createPost(dto));
+
+        System.out.printf("Transaction per post: %,.0f posts/sec%n", singlePerSecond);
+        System.out.printf("Group commit:         %,.0f posts/sec (%.1fx)%n", groupPerSecond, groupPerSecond / singlePerSecond);
+        assertThat(groupPerSecond).isPositive();
+    }
+
+    // CLIENTS concurrent callers each creating POSTS_PER_CLIENT posts back to back; returns posts/sec.
+    // Platform threads: H2 waits for row locks while pinning a virtual thread's carrier.
+    private double run(List<Long> userIds, Function<PostRequestDTO, ?> create) throws Exception {
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                Long userId = userIds.get(c);
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < POSTS_PER_CLIENT; i++) {
+                        create.apply(new PostRequestDTO(userId, new ContentDTO(null, "Post " + client + "/" + i, null, null)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return CLIENTS * POSTS_PER_CLIENT / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+}
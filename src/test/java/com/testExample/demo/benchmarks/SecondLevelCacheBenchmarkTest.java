@@ -0,0 +1,111 @@
+package com.testExample.demo.benchmarks;
+
+import com.testExample.demo.DemoApplication;
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.MediaDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import com.testExample.demo.services.PostService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// SQL statements (database round trips) and time per operation with the second-level/query cache off and on.
+// Reads go to PostService directly, below the JSON post cache and the timeline head, so only Hibernate caching differs.
+// Run with: mvn test -Dbenchmarks=true -Dtest=SecondLevelCacheBenchmarkTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class SecondLevelCacheBenchmarkTest {
+
+    private static final int USERS = 20;
+    private static final int POSTS = 1000;
+    private static final int MEDIA_PER_POST = 3;
+    private static final int HOT_POSTS = 200;
+    private static final int OPERATIONS = 2000;
+
+    @Test
+    void statementsPerOperationWithAndWithoutSecondLevelCache() {
+        List<String> off = run(false);
+        List<String> on = run(true);
+
+        System.out.println("Operation      cache   statements/op   us/op");
+        off.forEach(System.out::println);
+        on.forEach(System.out::println);
+        assertThat(on).hasSameSizeAs(off);
+    }
+
+    private List<String> run(boolean cacheEnabled) {
+        // Command-line arguments, so they override application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .run(
+                        "--spring.main.web-application-type=none",
+                        "--spring.datasource.url=jdbc:h2:mem:l2bench" + cacheEnabled,
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cacheEnabled,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cacheEnabled)) {
+            PostService postService = context.getBean(PostService.class);
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+            List<Long> userIds = new ArrayList<>();
+            for (int u = 0; u < USERS; u++) {
+                User user = new User();
+                user.setUsername("l2bench-" + u);
+                user.setEmail(user.getUsername() + "@example.com");
+                userIds.add(userRepository.save(user).getUserId());
+            }
+            List<PostRequestDTO> seed = new ArrayList<>(POSTS);
+            for (int i = 0; i < POSTS; i++) {
+                seed.add(request(userIds.get(i % USERS), i));
+            }
+            List<Long> postIds = postService.createPostsBatch(seed).getResults().stream()
+                    .map(result -> result.getPost().getPostId())
+                    .toList();
+
+            Random random = new Random(42);
+            String mode = cacheEnabled ? "on " : "off";
+            List<String> rows = new ArrayList<>();
+            rows.add(measure("getPostById  ", mode, statistics, () ->
+                    postService.getPostById(postIds.get(random.nextInt(HOT_POSTS)))));
+            rows.add(measure("timeline page", mode, statistics, () ->
+                    postService.getPostsByUserId(userIds.get(random.nextInt(USERS)), random.nextInt(3), 10)));
+            rows.add(measure("createPost   ", mode, statistics, () ->
+                    postService.createPost(request(userIds.get(random.nextInt(USERS)), random.nextInt()))));
+            return rows;
+        }
+    }
+
+    // Warm up, then run OPERATIONS operations and report statements and time per operation
+    private String measure(String name, String mode, Statistics statistics, Runnable operation) {
+        for (int i = 0; i < OPERATIONS / 4; i++) {
+            operation.run();
+        }
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            operation.run();
+        }
+        double microsPerOperation = (System.nanoTime() - start) / 1000.0 / OPERATIONS;
+        double statementsPerOperation = (double) statistics.getPrepareStatementCount() / OPERATIONS;
+        return String.format("%s  %s     %13.2f  %6.0f", name, mode, statementsPerOperation, microsPerOperation);
+    }
+
+    private static PostRequestDTO request(Long userId, int i) {
+        ContentDTO content = new ContentDTO();
+        content.setTitle("Cached post " + i);
+        content.setDescription("Generated by SecondLevelCacheBenchmarkTest");
+        for (int m = 0; m < MEDIA_PER_POST; m++) {
+            content.getMediaFiles().add(new MediaDTO(null, "https://cdn.example.com/l2/" + i + "/" + m, "image"));
+        }
+        return new PostRequestDTO(userId, content);
+    }
+}
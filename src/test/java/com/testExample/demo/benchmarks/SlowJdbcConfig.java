@@ -0,0 +1,61 @@
+package com.testExample.demo.benchmarks;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Test harness that makes every JDBC statement execution take at least test.jdbc.latency-ms (and every commit
+// test.jdbc.commit-latency-ms, e.g. a log fsync), standing in for a slow or overloaded database
+@TestConfiguration(proxyBeanMethods = false)
+public class SlowJdbcConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public static BeanPostProcessor slowJdbcPostProcessor(@Value("${test.jdbc.latency-ms:0}") long latencyMillis,
+                                                          @Value("${test.jdbc.commit-latency-ms:0}") long commitLatencyMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ((latencyMillis <= 0 && commitLatencyMillis <= 0) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return proxy(DataSource.class, dataSource, latencyMillis, commitLatencyMillis);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, long latencyMillis, long commitLatencyMillis) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } else if (method.getName().equals("commit")) {
+                TimeUnit.MILLISECONDS.sleep(commitLatencyMillis);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            // Keep wrapping down to statements so their execute* calls are delayed too
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return proxy(Connection.class, connection, latencyMillis, commitLatencyMillis);
+            }
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy((Class<Statement>) method.getReturnType(), statement, latencyMillis, commitLatencyMillis);
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.testExample.demo.benchmarks;
+
+import com.testExample.demo.DemoApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Throughput and tail latency with platform vs virtual request threads against a slow database.
+// Half of the requests need JDBC (per-user timeline), half are served from memory (cached GET /posts/{id}).
+// Run with: mvn test -Dbenchmarks=true -Dtest=VirtualThreadLoadBenchmarkTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final int CLIENTS = 1000;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final int JDBC_LATENCY_MS = 20;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.println("Mode      req/s     p50 ms   p99 ms   max ms  errors");
+        System.out.println(platform.format("platform"));
+        System.out.println(virtual.format("virtual"));
+        assertThat(virtual.errors).isZero();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        // Command-line arguments, not builder properties: those are defaults that application.properties overrides
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class, SlowJdbcConfig.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:vtbench" + virtualThreads,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.hikari.maximum-pool-size=10",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--test.jdbc.latency-ms=" + JDBC_LATENCY_MS)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+            send(client, HttpRequest.newBuilder(URI.create(base + "/users/create"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"load\",\"email\":\"load@example.com\"}")).build());
+            String created = send(client, HttpRequest.newBuilder(URI.create(base + "/posts/create"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"userId\":1,\"content\":{\"title\":\"hot\"}}")).build()).body();
+            String postId = created.replaceAll(".*\"postId\":(\\d+).*", "$1");
+
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            AtomicInteger next = new AtomicInteger();
+            AtomicInteger errors = new AtomicInteger();
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    int clientId = c;
+                    futures.add(clients.submit(() -> {
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            String path = (clientId + r) % 2 == 0 ? "/posts/user/1" : "/posts/" + postId;
+                            long sent = System.nanoTime();
+                            try {
+                                if (send(client, HttpRequest.newBuilder(URI.create(base + path)).GET().build()).statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                            latencies[next.getAndIncrement()] = System.nanoTime() - sent;
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(latencies);
+            return new Result(latencies.length / seconds, latencies, errors.get());
+        }
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private record Result(double throughput, long[] sortedLatencies, int errors) {
+        String format(String mode) {
+            return String.format("%-8s %7.0f %9.1f %8.1f %8.1f %7d", mode, throughput,
+                    percentile(0.50), percentile(0.99), sortedLatencies[sortedLatencies.length - 1] / 1e6, errors);
+        }
+
+        double percentile(double p) {
+            return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, Math.ceil(p * sortedLatencies.length) - 1)] / 1e6;
+        }
+    }
+}
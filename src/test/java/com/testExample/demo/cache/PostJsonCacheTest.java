@@ -0,0 +1,46 @@
+package com.testExample.demo.cache;
+
+import com.testExample.demo.services.ResourceVersion;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostJsonCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverBudget() {
+        // One segment's share of the budget fits two 200-byte entries but not three
+        PostJsonCache cache = new PostJsonCache(16 * 600);
+        Long first = 1L;
+        Long second = 17L; // same segment as 1
+        Long third = 33L;  // same segment as 1
+
+        cache.put(first, post(200), cache.loadStamp(first));
+        cache.put(second, post(200), cache.loadStamp(second));
+        cache.get(first); // first is now more recent than second
+        cache.put(third, post(200), cache.loadStamp(third));
+
+        assertThat(cache.get(first)).isNotNull();
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(third)).isNotNull();
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.getSizeBytes()).isLessThanOrEqualTo(600);
+    }
+
+    @Test
+    void dropsLoadThatRacedWithInvalidation() {
+        PostJsonCache cache = new PostJsonCache(1024 * 1024);
+        long stamp = cache.loadStamp(5L);
+
+        cache.invalidate(5L);
+        cache.put(5L, post(14), stamp);
+
+        assertThat(cache.get(5L)).isNull();
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getInvalidations()).isEqualTo(1);
+    }
+
+    private static CachedPost post(int jsonBytes) {
+        return new CachedPost(new byte[jsonBytes], new ResourceVersion("\"1-0\"", 0));
+    }
+}
@@ -0,0 +1,128 @@
+package com.testExample.demo.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(5000);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        List<Future<String>> results = startCallers(flight, 1L, () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "post 1";
+        });
+        awaitWaiting(flight, results);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("post 1");
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(flight.getLoads()).isEqualTo(1);
+        assertThat(flight.getCoalesced()).isEqualTo(CALLERS - 1);
+
+        // Completed loads are not remembered
+        assertThat(flight.load(1L, () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void failuresReachEveryWaiter() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(5000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = startCallers(flight, 2L, () -> {
+            await(release);
+            throw new RuntimeException("Post not found with id: 2");
+        });
+        awaitWaiting(flight, results);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isInstanceOf(RuntimeException.class).hasMessage("Post not found with id: 2");
+        }
+        assertThat(flight.getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void waitersStopWaitingForAStuckLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(50);
+        CountDownLatch stuck = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> flight.load(3L, () -> {
+            await(stuck);
+            return "late";
+        }));
+        while (flight.getLoads() == 0) {
+            Thread.sleep(1);
+        }
+
+        assertThat(flight.load(3L, () -> "fresh")).isEqualTo("fresh");
+        assertThat(flight.getTimeouts()).isEqualTo(1);
+        assertThat(flight.getLoads()).isEqualTo(2);
+
+        stuck.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("late");
+    }
+
+    private List<Future<String>> startCallers(SingleFlight<Long, String> flight, Long key, Supplier<String> loader)
+            throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                started.countDown();
+                return flight.load(key, loader);
+            }));
+        }
+        started.await();
+        return results;
+    }
+
+    // The loader blocks until released, so once the callers have had a moment to get from started into load()
+    // each of them is running it or waiting for it, and none can have finished
+    private static void awaitWaiting(SingleFlight<Long, String> flight, List<Future<String>> results) throws Exception {
+        while (flight.getLoads() == 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(200);
+        assertThat(results).noneMatch(Future::isDone);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
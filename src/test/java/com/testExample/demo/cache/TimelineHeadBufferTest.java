@@ -0,0 +1,106 @@
+package com.testExample.demo.cache;
+
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.services.PostChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineHeadBufferTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void keepsNewestPostsInTimelineOrderAcrossWraparound() {
+        TimelineHeadBuffer buffer = new TimelineHeadBuffer(3);
+        buffer.reset(List.of(post(2), post(1)), 2, buffer.getVersion());
+
+        created(buffer, post(3));
+        created(buffer, post(4));
+        created(buffer, post(5));
+
+        assertThat(ids(buffer.getPage(0, 3))).containsExactly(5L, 4L, 3L);
+        assertThat(buffer.getTotalPosts()).isEqualTo(5);
+        // Post 2 fell off the end, so the buffer can't answer for it
+        assertThat(buffer.getPage(2, 2)).isNull();
+    }
+
+    @Test
+    void insertsLateCommitsInPlaceAndRemovesDeletes() {
+        TimelineHeadBuffer buffer = new TimelineHeadBuffer(4);
+        buffer.reset(List.of(post(5), post(3), post(1)), 3, buffer.getVersion());
+
+        created(buffer, post(4));
+        buffer.onPostChanged(new PostChangedEvent(PostChangedEvent.Type.DELETED, 3L, 1L, null));
+
+        assertThat(ids(buffer.getPage(0, 10))).containsExactly(5L, 4L, 1L);
+        assertThat(ids(buffer.getPageAfter(BASE.plusSeconds(5), 5L, 2))).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void discardsRebuildThatRacedWithAWrite() {
+        TimelineHeadBuffer buffer = new TimelineHeadBuffer(4);
+        buffer.reset(List.of(post(1)), 1, buffer.getVersion());
+        long staleVersion = buffer.getVersion();
+        created(buffer, post(2));
+
+        assertThat(buffer.reset(List.of(post(1)), 1, staleVersion)).isFalse();
+        assertThat(ids(buffer.getPage(0, 2))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void doesNotAppendOldPostsPastUnbufferedOnes() {
+        TimelineHeadBuffer buffer = new TimelineHeadBuffer(4);
+        // Posts 1 and 2 are in the database but not buffered
+        buffer.reset(List.of(post(8), post(7), post(6), post(5)), 6, buffer.getVersion());
+        buffer.onPostChanged(new PostChangedEvent(PostChangedEvent.Type.DELETED, 7L, 1L, null));
+
+        // Older than all of them, e.g. imported with its original timestamp
+        created(buffer, new PostResponseDTO(9L, 1L, BASE, null, null));
+
+        assertThat(ids(buffer.getPage(0, 3))).containsExactly(8L, 6L, 5L);
+        assertThat(buffer.getPage(0, 4)).isNull();
+        assertThat(buffer.getTotalPosts()).isEqualTo(6);
+
+        // With the whole timeline buffered, it is the new last post
+        TimelineHeadBuffer complete = new TimelineHeadBuffer(4);
+        complete.reset(List.of(post(8), post(7)), 2, complete.getVersion());
+        created(complete, new PostResponseDTO(9L, 1L, BASE, null, null));
+        assertThat(ids(complete.getPage(0, 10))).containsExactly(8L, 7L, 9L);
+    }
+
+    @Test
+    void ignoresCreatedEventOfAPostTheResetAlreadyRead() {
+        TimelineHeadBuffer buffer = new TimelineHeadBuffer(4);
+        buffer.reset(List.of(post(2), post(1)), 2, buffer.getVersion());
+
+        created(buffer, post(2));
+
+        assertThat(ids(buffer.getPage(0, 10))).containsExactly(2L, 1L);
+        assertThat(buffer.getTotalPosts()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesWithEqualHashCodesGetDifferentTags() {
+        TimelineHeadBuffer buffer = new TimelineHeadBuffer(4);
+        buffer.reset(List.of(post(2), post(1)), 2, buffer.getVersion());
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+
+        assertThat(buffer.getPageVersion("Aa", 0, 2).getEtag()).isNotEqualTo(buffer.getPageVersion("BB", 0, 2).getEtag());
+    }
+
+    private static void created(TimelineHeadBuffer buffer, PostResponseDTO post) {
+        buffer.onPostChanged(new PostChangedEvent(PostChangedEvent.Type.CREATED, post.getPostId(), post.getUserId(), post));
+    }
+
+    private static PostResponseDTO post(long id) {
+        return new PostResponseDTO(id, 1L, BASE.plusSeconds(id), null, null);
+    }
+
+    private static List<Long> ids(List<PostResponseDTO> posts) {
+        return posts.stream().map(PostResponseDTO::getPostId).toList();
+    }
+}
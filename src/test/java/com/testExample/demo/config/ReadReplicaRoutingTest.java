@@ -0,0 +1,109 @@
+package com.testExample.demo.config;
+
+import com.testExample.demo.cache.PostJsonCache;
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.dto.UserRequestDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.services.PostService;
+import com.testExample.demo.services.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two H2 databases stand in for primary and replica. There is no replication between them, so a row
+// is only visible through the database it was written to, which shows where each read was routed.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rwprimary",
+        "app.datasource.replica.url=jdbc:h2:mem:rwreplica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.read-your-writes-seconds=60"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostJsonCache postJsonCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        new JdbcTemplate(replicaDataSource).update("INSERT INTO users (user_id, username, email) VALUES (1000, 'replica-only', 'replica@example.com')");
+
+        assertThat(userService.getUserById(1000L).getUsername()).isEqualTo("replica-only");
+    }
+
+    @Test
+    void writesGoToThePrimaryAndRecentWritesAreReadFromIt() throws Exception {
+        User created = userService.createUser(new UserRequestDTO("fresh-" + System.nanoTime(), System.nanoTime() + "@example.com"));
+
+        // Outside a request nothing pins the read, and the replica has not seen the write
+        assertThatThrownBy(() -> userService.getUserById(created.getUserId())).isInstanceOf(RuntimeException.class);
+        // A request for the user just written is routed to the primary
+        mockMvc.perform(get("/users/" + created.getUserId())).andExpect(status().isOk());
+    }
+
+    @Test
+    void multiGetOfARecentlyWrittenPostIsReadFromThePrimary() throws Exception {
+        User user = userService.createUser(new UserRequestDTO("multiget-" + System.nanoTime(), System.nanoTime() + "@example.com"));
+        Long postId = postService.createPost(new PostRequestDTO(user.getUserId(), new ContentDTO(null, "Fresh", null, null)))
+                .getPostId();
+        // Nothing cached: the read has to go to a database
+        entityManagerFactory.getCache().evictAll();
+        postJsonCache.invalidate(postId);
+
+        mockMvc.perform(get("/posts").param("ids", postId + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts[0].postId").value(postId))
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+        assertThat(postJsonCache.peek(postId)).isNotNull();
+    }
+
+    // Stands in for replication of the schema: copy the DDL Hibernate ran on the primary to the replica,
+    // before the startup jobs (which read through the replica) run
+    @TestConfiguration
+    static class ReplicaSchemaConfig {
+
+        @Bean
+        ApplicationListener<ContextRefreshedEvent> copySchemaToReplica(
+                @Qualifier("primaryDataSource") DataSource primary, @Qualifier("replicaDataSource") DataSource replica) {
+            return event -> {
+                JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+                new JdbcTemplate(primary).queryForList("SCRIPT NODATA", String.class).stream()
+                        .filter(statement -> !statement.startsWith("CREATE USER"))
+                        .forEach(replicaJdbc::execute);
+            };
+        }
+    }
+}
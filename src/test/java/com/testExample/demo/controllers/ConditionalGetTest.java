@@ -0,0 +1,149 @@
+package com.testExample.demo.controllers;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import com.testExample.demo.services.PostService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// If-None-Match on single posts and timeline pages: 304 for the current ETag, 200 for any other, and a new ETag
+// after every create, update and delete that touches the resource
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditionalget",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+    private List<Long> postIds;
+
+    @BeforeEach
+    void seed() {
+        // The second-level cache regions are shared by every test context in the JVM, and other contexts' databases
+        // reuse the same post ids
+        entityManagerFactory.getCache().evictAll();
+
+        User user = new User();
+        user.setUsername("conditional-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        userId = userRepository.save(user).getUserId();
+        postIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            postIds.add(createPost("Post " + i));
+        }
+    }
+
+    @Test
+    void singlePost() throws Exception {
+        String url = "/posts/" + postIds.get(0);
+        String etag = assertConditional(url);
+
+        postService.patchPost(postIds.get(0), new PostRequestDTO(null, new ContentDTO(null, "Patched", null, null)));
+        String updated = assertChanged(url, etag);
+
+        postService.deletePost(postIds.get(0));
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, updated)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void globalTimelineIsValidatedInMemory() throws Exception {
+        String etag = assertConditional("/posts");
+        // Served by the timeline head: no transaction, not even a query cache lookup
+        assertThat(etag).startsWith("\"h-");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/posts").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+        assertThat(statistics.getTransactionCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount() + statistics.getPrepareStatementCount()).isZero();
+
+        assertChangesOnEveryWrite("/posts", etag);
+    }
+
+    @Test
+    void globalTimelineCursorPage() throws Exception {
+        assertConditional("/posts?cursor=");
+    }
+
+    @Test
+    void userTimeline() throws Exception {
+        String url = "/posts/user/" + userId;
+        assertChangesOnEveryWrite(url, assertConditional(url));
+    }
+
+    // The current ETag gives 304, any other one 200 with the same ETag; returns it
+    private String assertConditional(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"not-" + etag.replace("\"", "") + "\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        return etag;
+    }
+
+    // The old ETag no longer matches; returns the new one
+    private String assertChanged(String url, String etag) throws Exception {
+        String changed = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotNull().isNotEqualTo(etag);
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, changed)).andExpect(status().isNotModified());
+        return changed;
+    }
+
+    private void assertChangesOnEveryWrite(String url, String etag) throws Exception {
+        Set<String> etags = new HashSet<>(List.of(etag));
+
+        createPost("Created");
+        etag = assertChanged(url, etag);
+        etags.add(etag);
+        postService.patchPost(postIds.get(1), new PostRequestDTO(null, new ContentDTO(null, "Patched", null, null)));
+        etag = assertChanged(url, etag);
+        etags.add(etag);
+        postService.deletePost(postIds.get(2));
+        etags.add(assertChanged(url, etag));
+
+        assertThat(etags).hasSize(4);
+    }
+
+    private Long createPost(String title) {
+        return postService.createPost(new PostRequestDTO(userId, new ContentDTO(null, title, "Description", List.of())))
+                .getPostId();
+    }
+}
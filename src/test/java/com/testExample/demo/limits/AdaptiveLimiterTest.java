@@ -0,0 +1,70 @@
+package com.testExample.demo.limits;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void growsWhileSaturatedAndFast() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 100, 1.5, 0);
+
+        for (int round = 0; round < 50; round++) {
+            saturate(limiter, FAST);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAndRejectsOverTheLimit() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(40, 2, 100, 1.5, 0);
+        for (int round = 0; round < 20; round++) {
+            saturate(limiter, FAST);
+        }
+        int before = limiter.getLimit();
+
+        for (int round = 0; round < 5; round++) {
+            saturate(limiter, SLOW);
+        }
+
+        int after = limiter.getLimit();
+        long rejected = limiter.getRejected();
+        assertThat(after).isLessThan(before / 2).isGreaterThanOrEqualTo(2);
+        for (int i = 0; i < after; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejected()).isEqualTo(rejected + 1);
+    }
+
+    @Test
+    void failuresBackOff() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 2, 100, 1.5, 0);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(6);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    // Fill every slot, then complete them all with the given latency
+    private static void saturate(AdaptiveLimiter limiter, long rttNanos) throws InterruptedException {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.testExample.demo.metrics;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import com.testExample.demo.services.PostService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The N+1 detector in fail mode: requests within the statement budget pass, requests over it become 500s
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:requestmetrics",
+        "posts.metrics.statement-budget=2",
+        "posts.metrics.statement-budget-mode=fail"
+})
+@AutoConfigureMockMvc
+class RequestMetricsFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private Long postId;
+
+    @BeforeEach
+    void seed() {
+        User user = new User();
+        user.setUsername("metrics-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        userId = userRepository.save(user).getUserId();
+        PostResponseDTO post = postService.createPost(new PostRequestDTO(userId, new ContentDTO(null, "Title", "Text", null)));
+        postId = post.getPostId();
+    }
+
+    @Test
+    void recordsStatementsPerHandlerWithinBudget() throws Exception {
+        // Cache miss: validators query + fetch-plan query
+        mockMvc.perform(get("/posts/" + postId)).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("posts.requests.statements")
+                .tag("handler", "PostsController.getPost").tag("status", "200").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.max()).isEqualTo(2);
+        assertThat(meterRegistry.get("posts.requests").tag("handler", "PostsController.getPost").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void failsRequestsOverBudget() throws Exception {
+        // Validators + id page + count + fetch plan
+        mockMvc.perform(get("/posts/user/" + userId))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().string(containsString("budget is 2")));
+
+        assertThat(meterRegistry.get("posts.requests.statement.budget.exceeded")
+                .tag("handler", "PostsController.getPostsByUser").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void exemptResponsesAreStreamedUnbuffered() throws Exception {
+        // The buffer is copied out with a Content-Length; a streamed response has none
+        mockMvc.perform(get("/posts"))
+                .andExpect(header().exists(HttpHeaders.CONTENT_LENGTH));
+        mockMvc.perform(get("/posts/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_LENGTH))
+                .andExpect(content().string(containsString("\"postId\":" + postId)));
+
+        assertThat(meterRegistry.get("posts.requests").tag("handler", "PostsController.exportPosts").timer().count())
+                .isEqualTo(1);
+    }
+}
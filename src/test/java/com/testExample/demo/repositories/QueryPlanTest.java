@@ -0,0 +1,208 @@
+package com.testExample.demo.repositories;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.MediaDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.services.PostService;
+import org.assertj.core.api.SoftAssertions;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Runs every PostRepository and UserRepository query against the schema the Flyway migrations create, records the
+// SQL Hibernate sends and fails if H2's EXPLAIN of any of it scans a whole table or sorts rows outside an index.
+// A new query needs an entry here; a query that has to read everything (exports, index rebuilds) goes in FULL_READS.
+// H2 planner behaviour the schema and queries are shaped around:
+// - it takes "column IS NULL" on an indexed column for a selective lookup, so Post's soft-delete restriction is on the
+//   unindexed deleted flag, and the timeline indexes end with that flag so the id queries still read them alone
+//   (without it H2 prefers the user_id foreign key index and sorts)
+// - it only skips a sort when the ORDER BY starts with the index's leading column, hence userId in the per-user ORDER BYs
+// - MAX() through the entity's restriction scans the table, so findTimelineVersion is native SQL over every row
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplans",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.testExample.demo.repositories.QueryPlanTest$SqlRecorder"
+})
+class QueryPlanTest {
+
+    private static final Set<String> FULL_READS = Set.of("streamForExport", "streamForSearchIndex", "countPostsByUser");
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void repositoryQueriesUseIndexes() throws Exception {
+        List<Long> userIds = seed(userRepository, postService);
+
+        Long userId = userIds.get(0);
+        Long postId = postRepository.findTimelineFirstPageIds(Limit.of(1)).get(0);
+        LocalDateTime createdAt = LocalDateTime.now();
+        PageRequest page = PageRequest.of(2, 10);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findTimelinePostIds", () -> postRepository.findTimelinePostIds(page));
+        queries.put("findUserTimelinePostIds", () -> postRepository.findUserTimelinePostIds(userId, page));
+        queries.put("findTimelineFirstPageIds", () -> postRepository.findTimelineFirstPageIds(Limit.of(11)));
+        queries.put("findTimelinePageIdsAfter", () -> postRepository.findTimelinePageIdsAfter(createdAt, postId, Limit.of(11)));
+        queries.put("findUserTimelineFirstPageIds", () -> postRepository.findUserTimelineFirstPageIds(userId, Limit.of(11)));
+        queries.put("findUserTimelinePageIdsAfter", () -> postRepository.findUserTimelinePageIdsAfter(userId, createdAt, postId, Limit.of(11)));
+        queries.put("findWithContentByPostIdIn", () -> postRepository.findWithContentByPostIdIn(List.of(postId, postId - 1, postId - 2)));
+        queries.put("findWithContentByPostId", () -> postRepository.findWithContentByPostId(postId));
+        queries.put("findVersionByPostId", () -> postRepository.findVersionByPostId(postId));
+        queries.put("findTimelineVersion", postRepository::findTimelineVersion);
+        queries.put("findUserTimelineVersion", () -> postRepository.findUserTimelineVersion(userId));
+        queries.put("countPostsByUser", postRepository::countPostsByUser);
+        queries.put("streamForExport", () -> postRepository.streamForExport(userId, null, null).forEach(post -> { }));
+        queries.put("streamForSearchIndex", () -> postRepository.streamForSearchIndex().forEach(post -> { }));
+        queries.put("lockPostIdsByUserId", () -> postRepository.lockPostIdsByUserId(userId));
+        queries.put("findTombstones", () -> postRepository.findTombstones(LocalDateTime.now(), 50));
+        queries.put("findByUsername", () -> userRepository.findByUsername("plans-1"));
+        queries.put("findByEmail", () -> userRepository.findByEmail("plans-1@example.com"));
+        queries.put("findExistingUserIds", () -> userRepository.findExistingUserIds(userIds));
+
+        SoftAssertions softly = new SoftAssertions();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+            for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+                assertPlans(softly, connection, transactionTemplate, query.getKey(), query.getValue());
+            }
+        }
+        softly.assertAll();
+    }
+
+    // The schema ddl-auto creates from the entities in dev and tests: Post declares idx_posts_deleted itself
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(properties = {
+            "spring.datasource.url=jdbc:h2:mem:queryplans-ddl",
+            "spring.flyway.enabled=false",
+            "spring.jpa.hibernate.ddl-auto=create",
+            "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+            "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.testExample.demo.repositories.QueryPlanTest$SqlRecorder"
+    })
+    class DdlAutoSchema {
+
+        @Autowired
+        private PostRepository postRepository;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private PostService postService;
+
+        @Autowired
+        private TransactionTemplate transactionTemplate;
+
+        @Autowired
+        private DataSource dataSource;
+
+        @Test
+        void tombstoneQueryUsesTheDeclaredIndex() throws Exception {
+            seed(userRepository, postService);
+
+            SoftAssertions softly = new SoftAssertions();
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("UPDATE posts SET deleted = true, deleted_at_timestamp = LOCALTIMESTAMP WHERE MOD(post_id, 4) = 0");
+                statement.execute("ANALYZE");
+                assertPlans(softly, connection, transactionTemplate, "findTombstones",
+                        () -> postRepository.findTombstones(LocalDateTime.now(), 50));
+            }
+            softly.assertAll();
+        }
+    }
+
+    // Four users with 50 posts each
+    private static List<Long> seed(UserRepository userRepository, PostService postService) {
+        List<Long> userIds = new ArrayList<>();
+        for (int u = 0; u < 4; u++) {
+            User user = new User();
+            user.setUsername("plans-" + u);
+            user.setEmail("plans-" + u + "@example.com");
+            userIds.add(userRepository.save(user).getUserId());
+        }
+        List<PostRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(new PostRequestDTO(userIds.get(i % userIds.size()), new ContentDTO(null, "Post " + i,
+                    "Description " + i, List.of(new MediaDTO(null, "https://cdn.example.com/" + i, "image")))));
+        }
+        postService.createPostsBatch(requests);
+        return userIds;
+    }
+
+    private static void assertPlans(SoftAssertions softly, Connection connection, TransactionTemplate transactionTemplate,
+                                    String name, Runnable query) throws Exception {
+        SqlRecorder.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> query.run());
+        softly.assertThat(SqlRecorder.STATEMENTS).as(name + " ran no SQL").isNotEmpty();
+
+        for (String sql : SqlRecorder.STATEMENTS) {
+            String plan = explain(connection, sql);
+            String description = name + ":\n" + plan;
+            // "direct lookup": MIN/MAX answered from the ends of indexes, the table scan named in the plan never runs
+            if (!FULL_READS.contains(name) && !plan.contains("/* direct lookup */")) {
+                softly.assertThat(plan).as(description).doesNotContain(".tableScan");
+            }
+            if (sql.toLowerCase().contains(" order by ")) {
+                softly.assertThat(plan).as(description).contains("/* index sorted */");
+            }
+        }
+    }
+
+    private static String explain(Connection connection, String sql) throws Exception {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql);
+             ResultSet plan = explain.executeQuery()) {
+            plan.next();
+            return plan.getString(1);
+        }
+    }
+
+    // Hibernate instantiates this from the statement_inspector property and passes it every SQL statement
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.testExample.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostSearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Test
+    void ranksPostsMatchingAllTermsAndTitleHitsFirst() {
+        PostSearchIndex index = new PostSearchIndex(72);
+        index.index(1L, NOW, "Weekend hiking", "Mountain trails and a lake");
+        index.index(2L, NOW, "Lake photos", "Hiking around the lake at sunset");
+        index.index(3L, NOW, "Recipes", "Nothing about the outdoors");
+
+        PostSearchIndex.SearchResult result = index.search("lake HIKING", 10);
+
+        assertThat(result.totalMatches()).isEqualTo(2);
+        // Post 2 has "lake" in its title and twice in its description
+        assertThat(result.postIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void fallsBackToAnyTermWhenNoPostMatchesAll() {
+        PostSearchIndex index = new PostSearchIndex(72);
+        index.index(1L, NOW, "Coffee", "Espresso at home");
+        index.index(2L, NOW, "Tea", "Green tea");
+
+        assertThat(index.search("coffee tea", 10).postIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("unknownword", 10).postIds()).isEmpty();
+    }
+
+    @Test
+    void newerPostsWinOnEqualText() {
+        PostSearchIndex index = new PostSearchIndex(24);
+        index.index(1L, NOW.minusDays(10), "Release notes", "Version one");
+        index.index(2L, NOW, "Release notes", "Version one");
+
+        assertThat(index.search("release", 10).postIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void updatesAndDeletesReplaceOldTextAcrossCompaction() {
+        PostSearchIndex index = new PostSearchIndex(72);
+        for (long id = 1; id <= 2000; id++) {
+            index.index(id, NOW, "Post " + id, "original text");
+        }
+        for (long id = 1; id <= 1500; id++) {
+            index.remove(id);
+        }
+        index.index(1999L, NOW, "Post 1999", "edited text");
+
+        assertThat(index.size()).isEqualTo(500);
+        assertThat(index.search("original", 1000).totalMatches()).isEqualTo(499);
+        assertThat(index.search("edited", 10).postIds()).containsExactly(1999L);
+        assertThat(index.search("1999", 10).postIds()).containsExactly(1999L);
+        assertThat(index.search("1000", 10).postIds()).isEmpty();
+    }
+
+    @Test
+    void searchesStayConsistentWhileWritesCompact() throws Exception {
+        PostSearchIndex index = new PostSearchIndex(72);
+        for (long id = 1; id <= 100; id++) {
+            index.index(id, NOW, "Stable " + id, "always here");
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger compactions = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            // Each round leaves mostly dead docs behind, so compactions keep happening
+            for (int round = 0; round < 20; round++) {
+                for (long id = 1000; id < 3000; id++) {
+                    index.index(id, NOW, "Churn " + id, "short lived");
+                }
+                int termsBefore = index.termCount();
+                for (long id = 1000; id < 3000; id++) {
+                    index.remove(id);
+                }
+                if (index.termCount() < termsBefore) {
+                    compactions.incrementAndGet();
+                }
+            }
+            writing.set(false);
+        });
+        writer.start();
+
+        int searches = 0;
+        while (writing.get()) {
+            assertThat(index.search("always", 200).totalMatches()).isEqualTo(100);
+            // Matches no post with both terms, so every live post with either of them
+            List<Long> union = index.search("always lived", 5000).postIds();
+            assertThat(union).doesNotHaveDuplicates().allMatch(id -> id <= 100 || id >= 1000);
+            assertThat(union.stream().filter(id -> id <= 100)).hasSize(100);
+            searches++;
+        }
+        writer.join();
+
+        assertThat(compactions.get()).isPositive();
+        assertThat(searches).isPositive();
+        assertThat(index.search("churn", 10).totalMatches()).isZero();
+        assertThat(index.search("stable", 200).totalMatches()).isEqualTo(100);
+    }
+}
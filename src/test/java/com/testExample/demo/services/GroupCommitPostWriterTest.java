@@ -0,0 +1,110 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.PostRepository;
+import com.testExample.demo.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+// A long max-delay makes every submission below land in the same micro-batch, and a timeout shorter than it makes
+// createPost give up before that batch commits
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:groupcommit",
+        "posts.write.group-commit.enabled=true",
+        "posts.write.group-commit.max-batch=10",
+        "posts.write.group-commit.max-delay-ms=200",
+        "posts.write.group-commit.timeout-ms=50"
+})
+class GroupCommitPostWriterTest {
+
+    @Autowired
+    private GroupCommitPostWriter groupCommitPostWriter;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void queuedPostsAreCommittedTogetherAndEachCallerGetsItsOwnResult() {
+        Long userId = createUser();
+
+        List<CompletableFuture<PostResponseDTO>> valid = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            valid.add(groupCommitPostWriter.submit(new PostRequestDTO(userId, new ContentDTO(null, "Queued " + i, null, null))));
+        }
+        CompletableFuture<PostResponseDTO> unknownUser =
+                groupCommitPostWriter.submit(new PostRequestDTO(-1L, new ContentDTO(null, "Orphan", null, null)));
+
+        for (int i = 0; i < valid.size(); i++) {
+            PostResponseDTO created = valid.get(i).join();
+            assertThat(created.getPostId()).isNotNull();
+            assertThat(created.getContent().getTitle()).isEqualTo("Queued " + i);
+            assertThat(postRepository.existsById(created.getPostId())).isTrue();
+        }
+        assertThatThrownBy(unknownUser::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void postNotCommittedInTimeIsWithdrawn() throws InterruptedException {
+        Long userId = createUser();
+
+        assertThatThrownBy(() -> groupCommitPostWriter.createPost(new PostRequestDTO(userId, new ContentDTO(null, "Late", null, null))))
+                .isInstanceOf(WriteQueueFullException.class);
+
+        // Its batch has been flushed by now, without it
+        Thread.sleep(500);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts WHERE user_id = ?", Integer.class, userId)).isZero();
+    }
+
+    @Test
+    void queuedAndDirectCreatesRejectTheSamePosts() {
+        Long userId = createUser();
+        List<PostRequestDTO> invalid = List.of(
+                new PostRequestDTO(userId, new ContentDTO(null, " ", null, null)),
+                new PostRequestDTO(userId, null),
+                new PostRequestDTO(-1L, new ContentDTO(null, "Orphan", null, null)),
+                new PostRequestDTO(null, new ContentDTO(null, "Nobody", null, null)));
+
+        for (PostRequestDTO request : invalid) {
+            CompletableFuture<PostResponseDTO> queued = groupCommitPostWriter.submit(request);
+            Throwable direct = catchThrowable(() -> postService.createPost(request));
+            assertThat(direct).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(queued::join)
+                    .isInstanceOf(CompletionException.class)
+                    .cause()
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage(direct.getMessage());
+        }
+    }
+
+    private Long createUser() {
+        User user = new User();
+        user.setUsername("groupcommit-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        return userRepository.save(user).getUserId();
+    }
+}
@@ -0,0 +1,107 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.entities.PostCounter;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.PostCounterRepository;
+import com.testExample.demo.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:postcounters",
+        "posts.counters.cache-ms=" + PostCounterServiceTest.CACHE_MILLIS
+})
+class PostCounterServiceTest {
+
+    static final long CACHE_MILLIS = 300;
+
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private PostCounterRepository postCounterRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void countsFollowWritesAndReconcileRepairsDrift() {
+        Long userId = createUser();
+        long totalBefore = postCounterService.getTotalPosts();
+
+        Long first = postService.createPost(request(userId)).getPostId();
+        postService.createPostsBatch(List.of(request(userId), request(userId)));
+        postService.deletePost(first);
+
+        assertThat(postCounterService.getUserPostCount(userId)).isEqualTo(2);
+        assertThat(postCounterService.getTotalPosts()).isEqualTo(totalBefore + 2);
+        assertThat(storedCount("user:" + userId)).isEqualTo(2);
+
+        // Simulate drift, e.g. posts deleted behind the application's back
+        postCounterRepository.save(new PostCounter("user:" + userId, 40));
+        postCounterRepository.save(new PostCounter("global#7", 1000));
+        postCounterService.reconcile();
+
+        assertThat(storedCount("user:" + userId)).isEqualTo(2);
+        long storedTotal = postCounterRepository.findAll().stream()
+                .filter(counter -> counter.getCounterKey().startsWith("global#"))
+                .mapToLong(PostCounter::getPostCount)
+                .sum();
+        assertThat(storedTotal).isEqualTo(postCounterService.getTotalPosts()).isEqualTo(totalBefore + 2);
+    }
+
+    @Test
+    void countsIncludeOtherInstancesWrites() throws Exception {
+        Long userId = createUser();
+        assertThat(postCounterService.getUserPostCount(userId)).isZero();
+        long totalBefore = postCounterService.getTotalPosts();
+
+        // Another instance committed a post: here only its counter rows change
+        transactionTemplate.executeWithoutResult(status -> {
+            postCounterRepository.add("user:" + userId, 1);
+            postCounterRepository.add("global#3", 1);
+        });
+        // This instance's own commits show at once
+        postService.createPost(request(userId));
+        assertThat(postCounterService.getUserPostCount(userId)).isEqualTo(1);
+        assertThat(postCounterService.getTotalPosts()).isEqualTo(totalBefore + 1);
+
+        // The other one's once the cached counts expire
+        Thread.sleep(CACHE_MILLIS + 100);
+        assertThat(postCounterService.getUserPostCount(userId)).isEqualTo(2);
+        assertThat(postCounterService.getTotalPosts()).isEqualTo(totalBefore + 2);
+
+        // There is no such post: leave the table matching the posts for the other test
+        postCounterService.reconcile();
+        assertThat(postCounterService.getUserPostCount(userId)).isEqualTo(1);
+    }
+
+    private Long createUser() {
+        User user = new User();
+        user.setUsername("counters-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        return userRepository.save(user).getUserId();
+    }
+
+    private long storedCount(String key) {
+        return postCounterRepository.findById(key).map(PostCounter::getPostCount).orElse(0L);
+    }
+
+    private static PostRequestDTO request(Long userId) {
+        return new PostRequestDTO(userId, new ContentDTO(null, "Counted", null, null));
+    }
+}
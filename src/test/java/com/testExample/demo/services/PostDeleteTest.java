@@ -0,0 +1,240 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.MediaDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.entities.Post;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The purger's schedule is off and it keeps no retention; the tests call purge() themselves
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:postdelete",
+        "posts.purge.enabled=false",
+        "posts.purge.retention-ms=0"
+})
+@AutoConfigureMockMvc
+class PostDeleteTest {
+
+    private static final int POSTS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private PostPurger postPurger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+    private List<PostResponseDTO> posts;
+
+    @BeforeEach
+    void seed() {
+        // The second-level cache regions are shared by every test context in the JVM, and other contexts' databases
+        // reuse the same post ids
+        entityManagerFactory.getCache().evictAll();
+
+        User user = new User();
+        user.setUsername("delete-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        userId = userRepository.save(user).getUserId();
+
+        posts = new ArrayList<>();
+        for (int i = 0; i < POSTS; i++) {
+            posts.add(postService.createPost(new PostRequestDTO(userId, new ContentDTO(null, "Post " + i, "Description " + i,
+                    List.of(new MediaDTO(null, "https://cdn.example.com/" + i + "/a", "image"),
+                            new MediaDTO(null, "https://cdn.example.com/" + i + "/b", "image"))))));
+        }
+    }
+
+    @Test
+    void deletedPostIsHiddenUntilPurged() throws Exception {
+        PostResponseDTO post = posts.get(0);
+        // Cache it first: the delete must not leave a cached copy behind
+        mockMvc.perform(get("/posts/" + post.getPostId())).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/posts/" + post.getPostId())).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/posts/" + post.getPostId())).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/posts/" + post.getPostId())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/posts/user/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.posts.length()").value(POSTS - 1))
+                .andExpect(jsonPath("$.totalElements").value(POSTS - 1));
+        mockMvc.perform(get("/posts")).andExpect(status().isOk()).andExpect(header().exists(HttpHeaders.ETAG));
+        assertThat(postCounterService.getUserPostCount(userId)).isEqualTo(POSTS - 1);
+        // Still in the table until the purger runs
+        assertThat(rows("posts", post.getPostId())).isEqualTo(1);
+
+        assertThat(postPurger.purge()).isGreaterThanOrEqualTo(1);
+
+        assertThat(rows("posts", post.getPostId())).isZero();
+        assertThat(contentRows(post)).isZero();
+        assertThat(mediaRows(post)).isZero();
+        assertThat(rows("posts", posts.get(1).getPostId())).isEqualTo(1);
+        assertThat(mediaRows(posts.get(1))).isEqualTo(2);
+    }
+
+    @Test
+    void deleteByUserRemovesAllTheirPosts() throws Exception {
+        mockMvc.perform(delete("/posts/user/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedPosts").value(POSTS));
+
+        mockMvc.perform(get("/posts/user/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts.length()").value(0));
+        assertThat(postCounterService.getUserPostCount(userId)).isZero();
+        // Nothing left to delete the second time
+        mockMvc.perform(delete("/posts/user/" + userId))
+                .andExpect(jsonPath("$.deletedPosts").value(0));
+        mockMvc.perform(delete("/posts/user/" + Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        postPurger.purge();
+
+        for (PostResponseDTO post : posts) {
+            assertThat(rows("posts", post.getPostId())).isZero();
+            assertThat(contentRows(post)).isZero();
+            assertThat(mediaRows(post)).isZero();
+        }
+    }
+
+    @Test
+    void deletesKeepOtherPostsCached() throws Exception {
+        User other = new User();
+        other.setUsername("delete-other-" + System.nanoTime());
+        other.setEmail(other.getUsername() + "@example.com");
+        Long otherPostId = postService.createPost(new PostRequestDTO(userRepository.save(other).getUserId(),
+                new ContentDTO(null, "Other", "Other", List.of()))).getPostId();
+        mockMvc.perform(get("/posts/" + otherPostId)).andExpect(status().isOk());
+        mockMvc.perform(get("/posts/" + posts.get(1).getPostId())).andExpect(status().isOk());
+        assertThat(entityManagerFactory.getCache().contains(Post.class, otherPostId)).isTrue();
+
+        mockMvc.perform(delete("/posts/" + posts.get(0).getPostId())).andExpect(status().isNoContent());
+
+        assertThat(entityManagerFactory.getCache().contains(Post.class, otherPostId)).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Post.class, posts.get(1).getPostId())).isTrue();
+
+        mockMvc.perform(delete("/posts/user/" + userId)).andExpect(status().isOk());
+
+        assertThat(entityManagerFactory.getCache().contains(Post.class, otherPostId)).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Post.class, posts.get(1).getPostId())).isFalse();
+        mockMvc.perform(get("/posts/" + posts.get(1).getPostId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void concurrentDeletesCountThePostOnce() throws Exception {
+        Long postId = posts.get(0).getPostId();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    try {
+                        postService.deletePost(postId);
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                succeeded += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertThat(succeeded).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(postCounterService.getUserPostCount(userId)).isEqualTo(POSTS - 1);
+    }
+
+    @Test
+    void oldestTombstonesArePurgedFirstWhileDeletesContinue() {
+        // Deleted years ago, oldest first, so they are older than any other test's tombstones
+        for (int i = 0; i < 3; i++) {
+            postService.deletePost(posts.get(i).getPostId());
+            backdateDelete(posts.get(i), LocalDateTime.now().minusYears(3 - i));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            Long fresh = postService.createPost(new PostRequestDTO(userId, new ContentDTO(null, "Fresh", "Fresh", List.of())))
+                    .getPostId();
+            postService.deletePost(fresh);
+
+            assertThat(postService.purgeDeletedPosts(LocalDateTime.now(), 1)).isEqualTo(1);
+            assertThat(rows("posts", posts.get(i).getPostId())).isZero();
+            assertThat(rows("posts", fresh)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void recentTombstonesAreKeptForTheRetention() {
+        postService.deletePost(posts.get(0).getPostId());
+        postService.deletePost(posts.get(1).getPostId());
+        backdateDelete(posts.get(0), LocalDateTime.now().minusHours(2));
+
+        assertThat(postService.purgeDeletedPosts(LocalDateTime.now().minusHours(1), 100)).isEqualTo(1);
+
+        assertThat(rows("posts", posts.get(0).getPostId())).isZero();
+        assertThat(rows("posts", posts.get(1).getPostId())).isEqualTo(1);
+    }
+
+    private void backdateDelete(PostResponseDTO post, LocalDateTime deletedAt) {
+        jdbcTemplate.update("UPDATE posts SET deleted_at_timestamp = ? WHERE post_id = ?", deletedAt, post.getPostId());
+    }
+
+    private int rows(String table, Long postId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE post_id = ?", Integer.class, postId);
+    }
+
+    private int contentRows(PostResponseDTO post) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM content WHERE content_id = ?", Integer.class,
+                post.getContent().getContentId());
+    }
+
+    private int mediaRows(PostResponseDTO post) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM media WHERE content_id = ?", Integer.class,
+                post.getContent().getContentId());
+    }
+}
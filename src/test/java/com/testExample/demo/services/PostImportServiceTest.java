@@ -0,0 +1,161 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.ImportChunkFailureDTO;
+import com.testExample.demo.dto.ImportReportDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:postimport")
+class PostImportServiceTest {
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String suffix;
+
+    // The second-level cache regions are shared by every test context in the JVM, and other contexts' databases
+    // reuse the same post ids
+    @BeforeEach
+    void evictSecondLevelCache() {
+        entityManagerFactory.getCache().evictAll();
+        suffix = "-" + System.nanoTime();
+    }
+
+    @Test
+    void exportThenImportRestoresTheTimeline() throws Exception {
+        Long alice = createUser("alice" + suffix);
+        Long bob = createUser("bob" + suffix);
+        createPost(alice, "alice 1");
+        createPost(bob, "bob 1");
+        createPost(alice, "alice 2");
+
+        // As restored into another database: the users come back with new ids
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.writeBytes(userLine(alice, "alice-restored" + suffix).getBytes(StandardCharsets.UTF_8));
+        file.writeBytes(userLine(bob, "bob-restored" + suffix).getBytes(StandardCharsets.UTF_8));
+        postService.exportPosts(file, alice, null, null);
+        postService.exportPosts(file, bob, null, null);
+
+        ImportReportDTO report = postImportService.importNdjson(new ByteArrayInputStream(file.toByteArray()), 2, 1, 0);
+
+        assertThat(report.getFailedChunks()).isEmpty();
+        assertThat(report.getRecordsRejected()).isZero();
+        assertThat(report.getUsersImported()).isEqualTo(2);
+        assertThat(report.getPostsImported()).isEqualTo(3);
+        Long restoredAlice = userRepository.findByUsername("alice-restored" + suffix).orElseThrow().getUserId();
+        Long restoredBob = userRepository.findByUsername("bob-restored" + suffix).orElseThrow().getUserId();
+        assertThat(timeline(restoredAlice)).isEqualTo(timeline(alice));
+        assertThat(timeline(restoredBob)).isEqualTo(timeline(bob));
+    }
+
+    @Test
+    void failedChunksAreReportedByLineRange() throws Exception {
+        String taken = "taken" + suffix;
+        createUser(taken);
+        String file = String.join("\n",
+                userLine(1L, "first" + suffix).strip(),
+                postLine(1L, "kept"),
+                // Duplicate username: the whole chunk (lines 3-4) is rolled back
+                userLine(2L, taken).strip(),
+                postLine(2L, "lost with its chunk"),
+                // Its user was not imported, so this is rejected rather than given to the user with id 2 here
+                postLine(2L, "orphan"),
+                "{not json");
+
+        ImportReportDTO report = postImportService.importNdjson(input(file), 2, 1, 0);
+
+        assertThat(report.getChunksCommitted()).isEqualTo(2);
+        assertThat(report.getFailedChunks()).hasSize(1);
+        ImportChunkFailureDTO failed = report.getFailedChunks().get(0);
+        assertThat(failed.getFromLine()).isEqualTo(3);
+        assertThat(failed.getToLine()).isEqualTo(4);
+        assertThat(report.getLastCommittedLine()).isEqualTo(6);
+        assertThat(report.getUsersImported()).isEqualTo(1);
+        assertThat(report.getPostsImported()).isEqualTo(1);
+        assertThat(report.getRecordsRejected()).isEqualTo(2);
+        assertThat(report.getRecordErrors()).extracting(error -> error.getLine()).containsExactlyInAnyOrder(5L, 6L);
+
+        Long first = userRepository.findByUsername("first" + suffix).orElseThrow().getUserId();
+        assertThat(timeline(first)).extracting(row -> row.get("TITLE")).containsExactly("kept");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM content WHERE title IN ('lost with its chunk', 'orphan')",
+                Integer.class)).isZero();
+    }
+
+    @Test
+    void resumeMapsUsersImportedBeforeTheResumeLine() throws Exception {
+        String file = String.join("\n",
+                userLine(7L, "resumed" + suffix).strip(),
+                postLine(7L, "before the stop"),
+                postLine(7L, "after the resume"));
+
+        ImportReportDTO stopped = postImportService.importNdjson(input(file), 500, 1, 2);
+        assertThat(stopped.getLastCommittedLine()).isEqualTo(2);
+
+        ImportReportDTO resumed = postImportService.importNdjson(input(file), 500, stopped.getLastCommittedLine() + 1, 0);
+
+        assertThat(resumed.getFirstLine()).isEqualTo(3);
+        assertThat(resumed.getUsersImported()).isZero();
+        assertThat(resumed.getPostsImported()).isEqualTo(1);
+        Long user = userRepository.findByUsername("resumed" + suffix).orElseThrow().getUserId();
+        assertThat(timeline(user)).extracting(row -> row.get("TITLE"))
+                .containsExactly("before the stop", "after the resume");
+    }
+
+    private List<Map<String, Object>> timeline(Long userId) {
+        return jdbcTemplate.queryForList("SELECT c.title, p.created_at_timestamp, p.updated_at_timestamp FROM posts p "
+                + "JOIN content c ON c.content_id = p.content_id WHERE p.user_id = ? "
+                + "ORDER BY p.created_at_timestamp, p.post_id", userId);
+    }
+
+    private static String userLine(Long userId, String username) {
+        return "{\"type\":\"user\",\"userId\":" + userId + ",\"username\":\"" + username + "\",\"email\":\""
+                + username + "@example.com\"}\n";
+    }
+
+    private static String postLine(Long userId, String title) {
+        return "{\"type\":\"post\",\"userId\":" + userId + ",\"content\":{\"title\":\"" + title + "\"}}";
+    }
+
+    private static ByteArrayInputStream input(String file) {
+        return new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return userRepository.save(user).getUserId();
+    }
+
+    private void createPost(Long userId, String title) {
+        postService.createPost(new PostRequestDTO(userId, new ContentDTO(null, title, null, List.of())));
+    }
+}
@@ -0,0 +1,193 @@
+package com.testExample.demo.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testExample.demo.dto.*;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Guards the timeline fetch plans: the number of statements per request must not grow with page size or media count.
+// Each test starts with an empty second-level cache, so the cold plans are what is measured unless a test warms it.
+// The maintained post counts are read ahead and cached for the whole test: their lookups are not what is measured.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "posts.counters.cache-ms=600000"
+})
+class PostServiceQueryCountTest {
+
+    private static final int POSTS = 12;
+    private static final int MEDIA_PER_POST = 3;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostReadService postReadService;
+
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User user = new User();
+        user.setUsername("querycount-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        userId = userRepository.save(user).getUserId();
+
+        for (int i = 0; i < POSTS; i++) {
+            ContentDTO content = new ContentDTO();
+            content.setTitle("Post " + i);
+            content.setDescription("Description " + i);
+            for (int m = 0; m < MEDIA_PER_POST; m++) {
+                content.getMediaFiles().add(new MediaDTO(null, "https://cdn.example.com/" + i + "/" + m, "image"));
+            }
+            postService.createPost(new PostRequestDTO(userId, content));
+        }
+        postCounterService.getTotalPosts();
+        postCounterService.getUserPostCount(userId);
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @Test
+    void timelinePageUsesIdsAndOneFetch() {
+        PaginatedPostResponseDTO page = postService.getAllPosts(0, 10);
+
+        assertThat(page.getPosts()).hasSize(10);
+        assertThat(page.getPosts()).allSatisfy(post ->
+                assertThat(post.getContent().getMediaFiles()).hasSize(MEDIA_PER_POST));
+        // Totals come from the maintained counters, not a COUNT query
+        assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(POSTS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void userTimelinePageUsesIdsAndOneFetch() {
+        PaginatedPostResponseDTO page = postService.getPostsByUserId(userId, 1, 10);
+
+        assertThat(page.getPosts()).hasSize(POSTS - 10);
+        assertThat(page.getTotalElements()).isEqualTo(POSTS);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void slicePageHasNoTotals() {
+        PaginatedPostResponseDTO page = postService.getPostsByUserId(userId, 0, 10, false);
+
+        assertThat(page.getPosts()).hasSize(10);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotalElements()).isNull();
+        assertThat(page.getTotalPages()).isNull();
+    }
+
+    @Test
+    void cursorPageUsesIdsAndOneFetch() {
+        PaginatedPostResponseDTO first = postService.getPostsByUserIdByCursor(userId, null, 10);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        statistics.clear();
+        PaginatedPostResponseDTO second = postService.getPostsByUserIdByCursor(userId, first.getNextCursor(), 10);
+
+        List<Long> firstIds = first.getPosts().stream().map(PostResponseDTO::getPostId).toList();
+        assertThat(second.getPosts()).extracting(PostResponseDTO::getPostId).doesNotContainAnyElementsOf(firstIds);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void singlePostIsOneQuery() {
+        Long postId = postService.getAllPosts(0, 1).getPosts().get(0).getPostId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        PostResponseDTO post = postService.getPostById(postId);
+
+        assertThat(post.getContent().getMediaFiles()).hasSize(MEDIA_PER_POST);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void warmTimelinePageAndPostAreServedFromTheSecondLevelCache() {
+        PaginatedPostResponseDTO cold = postService.getAllPosts(0, 10);
+        statistics.clear();
+
+        PaginatedPostResponseDTO warm = postService.getAllPosts(0, 10);
+        PostResponseDTO post = postService.getPostById(cold.getPosts().get(0).getPostId());
+
+        assertThat(warm.getPosts()).isEqualTo(cold.getPosts());
+        assertThat(post).isEqualTo(cold.getPosts().get(0));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void creatingAPostInvalidatesCachedTimelineIds() {
+        postService.getPostsByUserId(userId, 0, 10);
+        ContentDTO content = new ContentDTO();
+        content.setTitle("Newest");
+        Long newest = postService.createPost(new PostRequestDTO(userId, content)).getPostId();
+
+        PaginatedPostResponseDTO page = postService.getPostsByUserId(userId, 0, 10);
+
+        assertThat(page.getPosts().get(0).getPostId()).isEqualTo(newest);
+    }
+
+    @Test
+    void multiGetLoadsMissesInOneFetchAndKeepsRequestOrder() throws Exception {
+        List<Long> ids = new ArrayList<>(postService.getPostsByUserId(userId, 0, 10).getPosts().stream()
+                .map(PostResponseDTO::getPostId).toList());
+        ids.add(1, -1L);
+        ids.add(ids.get(0));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        JsonNode cold = objectMapper.readTree(postReadService.getPostsByIds(ids));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(cold.get("posts")).hasSize(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            JsonNode post = cold.get("posts").get(i);
+            if (ids.get(i) == -1L) {
+                assertThat(post.isNull()).isTrue();
+            } else {
+                assertThat(post.get("postId").asLong()).isEqualTo(ids.get(i));
+                assertThat(post.get("content").get("mediaFiles")).hasSize(MEDIA_PER_POST);
+            }
+        }
+        assertThat(cold.get("missingIds").toString()).isEqualTo("[-1]");
+
+        // Second time the posts come from the serialized post cache; only the unknown id is looked up again
+        statistics.clear();
+        JsonNode warm = objectMapper.readTree(postReadService.getPostsByIds(ids));
+        assertThat(warm).isEqualTo(cold);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
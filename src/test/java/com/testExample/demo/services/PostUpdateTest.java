@@ -0,0 +1,109 @@
+package com.testExample.demo.services;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.MediaDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.dto.PostResponseDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:postupdate")
+@AutoConfigureMockMvc
+class PostUpdateTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private PostResponseDTO post;
+
+    @BeforeEach
+    void createPost() {
+        User user = new User();
+        user.setUsername("update-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        Long userId = userRepository.save(user).getUserId();
+        post = postService.createPost(new PostRequestDTO(userId, content("Title", "Description", "a", "b", "c")));
+    }
+
+    @Test
+    void mediaUpdatesKeepUnchangedRows() {
+        PostResponseDTO updated = postService.updatePost(post.getPostId(),
+                new PostRequestDTO(null, content("Title", "Description", "a", "c", "d")));
+
+        assertThat(updated.getContent().getMediaFiles()).extracting(MediaDTO::getMediaUrl)
+                .containsExactlyInAnyOrder("a", "c", "d");
+        // a and c are the same rows as before; b is gone and d is new
+        assertThat(mediaIds(updated)).contains(mediaId(post, "a"), mediaId(post, "c"))
+                .doesNotContain(mediaId(post, "b"));
+        assertThat(updated.getUpdatedAtTimestamp()).isNotNull();
+    }
+
+    @Test
+    void noOpUpdatesWriteNothing() {
+        PostResponseDTO unchanged = postService.updatePost(post.getPostId(),
+                new PostRequestDTO(null, content("Title", "Description", "c", "b", "a")));
+        PostResponseDTO unpatched = postService.patchPost(post.getPostId(),
+                new PostRequestDTO(null, new ContentDTO(null, "Title", null, null)));
+
+        assertThat(unchanged.getUpdatedAtTimestamp()).isNull();
+        assertThat(unpatched.getUpdatedAtTimestamp()).isNull();
+        assertThat(mediaIds(unpatched)).containsExactlyInAnyOrderElementsOf(mediaIds(post));
+    }
+
+    @Test
+    void patchChangesOnlyTheFieldsPresent() throws Exception {
+        mockMvc.perform(patch("/posts/" + post.getPostId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":{\"title\":\"Patched\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.title").value("Patched"))
+                .andExpect(jsonPath("$.content.description").value("Description"))
+                .andExpect(jsonPath("$.content.mediaFiles.length()").value(3));
+
+        mockMvc.perform(patch("/posts/" + post.getPostId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":{\"mediaFiles\":[]}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.title").value("Patched"))
+                .andExpect(jsonPath("$.content.mediaFiles.length()").value(0));
+    }
+
+    private static ContentDTO content(String title, String description, String... mediaUrls) {
+        List<MediaDTO> media = new ArrayList<>();
+        for (String url : mediaUrls) {
+            media.add(new MediaDTO(null, url, "image"));
+        }
+        return new ContentDTO(null, title, description, media);
+    }
+
+    private static List<Long> mediaIds(PostResponseDTO post) {
+        return post.getContent().getMediaFiles().stream().map(MediaDTO::getMediaId).toList();
+    }
+
+    private static Long mediaId(PostResponseDTO post, String url) {
+        return post.getContent().getMediaFiles().stream()
+                .filter(media -> media.getMediaUrl().equals(url))
+                .findFirst().orElseThrow().getMediaId();
+    }
+}
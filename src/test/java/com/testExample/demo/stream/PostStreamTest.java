@@ -0,0 +1,179 @@
+package com.testExample.demo.stream;
+
+import com.testExample.demo.dto.ContentDTO;
+import com.testExample.demo.dto.PostRequestDTO;
+import com.testExample.demo.entities.User;
+import com.testExample.demo.repositories.UserRepository;
+import com.testExample.demo.services.PostService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:poststream")
+class PostStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostStreamHub postStreamHub;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    // The second-level cache regions are shared by every test context in the JVM, and other contexts' databases
+    // reuse the same post ids
+    @BeforeEach
+    void evictSecondLevelCache() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void streamsChangesPerUserAndResumesFromLastEventId() throws Exception {
+        Long alice = createUser("alice");
+        Long bob = createUser("bob");
+
+        try (BufferedReader global = open("/posts/stream", null);
+             BufferedReader aliceOnly = open("/posts/stream?userId=" + alice, null)) {
+            awaitSubscribers(2);
+            Long bobPost = createPost(bob, "from bob");
+            Long alicePost = createPost(alice, "from alice");
+            postService.deletePost(alicePost);
+
+            List<String> globalEvents = readEvents(global, 3);
+            assertThat(globalEvents.get(0)).contains("event: created", "\"postId\":" + bobPost, "from bob");
+            assertThat(globalEvents.get(1)).contains("event: created", "\"postId\":" + alicePost);
+            assertThat(globalEvents.get(2)).contains("event: deleted", "\"postId\":" + alicePost);
+
+            List<String> aliceEvents = readEvents(aliceOnly, 2);
+            assertThat(aliceEvents.get(0)).contains("event: created", "from alice");
+            assertThat(aliceEvents.get(1)).contains("event: deleted");
+
+            // Reconnecting after the first event replays the two that followed
+            long firstId = Long.parseLong(globalEvents.get(0).lines().findFirst().orElseThrow().substring(4));
+            try (BufferedReader resumed = open("/posts/stream", firstId)) {
+                List<String> replayed = readEvents(resumed, 2);
+                assertThat(replayed).containsExactlyElementsOf(globalEvents.subList(1, 3));
+            }
+        }
+    }
+
+    @Test
+    void tooOldLastEventIdGetsReset() throws Exception {
+        createPost(createUser("carol"), "before");
+
+        try (BufferedReader resumed = open("/posts/stream", Long.MAX_VALUE)) {
+            assertThat(readEvents(resumed, 1).get(0)).startsWith("event: reset");
+        }
+    }
+
+    @Test
+    void gapLargerThanTheBufferGetsResetInsteadOfBeingDropped() throws Exception {
+        Long dave = createUser("dave");
+        long resumeFrom;
+        try (BufferedReader global = open("/posts/stream", null)) {
+            awaitSubscribers(1);
+            createPost(dave, "first");
+            resumeFrom = eventId(readEvents(global, 1).get(0));
+        }
+
+        // More than the 256 frames a subscriber buffers, fewer than the 1000 kept for replay
+        for (int i = 0; i < 300; i++) {
+            createPost(dave, "missed " + i);
+        }
+        long dropped = postStreamHub.getDropped();
+
+        try (BufferedReader resumed = open("/posts/stream", resumeFrom)) {
+            assertThat(readEvents(resumed, 1).get(0)).startsWith("event: reset");
+            // Still connected: later changes arrive on the same stream
+            Long live = createPost(dave, "live");
+            assertThat(readEvents(resumed, 1).get(0)).contains("event: created", "\"postId\":" + live);
+        }
+        // A gap that fits in the buffer is still replayed
+        try (BufferedReader resumed = open("/posts/stream", resumeFrom + 200)) {
+            List<String> replayed = readEvents(resumed, 101);
+            assertThat(eventId(replayed.get(0))).isEqualTo(resumeFrom + 201);
+            assertThat(replayed.get(100)).contains("live");
+        }
+        assertThat(postStreamHub.getDropped()).isEqualTo(dropped);
+    }
+
+    private static long eventId(String event) {
+        return Long.parseLong(event.lines().findFirst().orElseThrow().substring(4));
+    }
+
+    private BufferedReader open(String path, Long lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId.toString());
+        }
+        HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type ->
+                assertThat(type).startsWith("text/event-stream"));
+        return new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+    }
+
+    // Events are separated by blank lines; heartbeat comments (":") and the retry hint are skipped
+    private static List<String> readEvents(BufferedReader reader, int count) throws Exception {
+        List<String> events = new ArrayList<>();
+        StringBuilder event = new StringBuilder();
+        String line;
+        while (events.size() < count && (line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (!event.isEmpty()) {
+                    events.add(event.toString());
+                    event.setLength(0);
+                }
+            } else if (!line.startsWith(":") && !line.startsWith("retry:")) {
+                event.append(line).append('\n');
+            }
+        }
+        return events;
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        for (int i = 0; i < 500 && postStreamHub.getSubscriberCount() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(postStreamHub.getSubscriberCount()).isGreaterThanOrEqualTo(count);
+    }
+
+    private Long createUser(String name) {
+        User user = new User();
+        user.setUsername(name + "-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        return userRepository.save(user).getUserId();
+    }
+
+    private Long createPost(Long userId, String title) {
+        ContentDTO content = new ContentDTO();
+        content.setTitle(title);
+        return postService.createPost(new PostRequestDTO(userId, content)).getPostId();
+    }
+}